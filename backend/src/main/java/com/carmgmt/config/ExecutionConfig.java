@@ -0,0 +1,81 @@
+package com.carmgmt.config;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Request execution configuration.
+ * <p>
+ * In {@link ExecutionMode#VIRTUAL} mode Tomcat hands every request, whether it ends up in a
+ * controller or in {@link com.carmgmt.servlet.FuelStatsServlet}, to a new virtual thread
+ * instead of its platform-thread pool, and async request processing (streamed listings and
+ * exports) uses virtual threads as well. A request blocked on a slow client then parks its
+ * virtual thread rather than holding one of server.tomcat.threads.max platform threads.
+ * <p>
+ * The backend is compiled for Java 17, so the virtual-thread executor is looked up
+ * reflectively; on an older runtime startup fails instead of silently staying on platform threads.
+ */
+@Configuration
+public class ExecutionConfig {
+    private final ExecutorService virtualThreadExecutor;
+
+    public ExecutionConfig(@Value("${carmgmt.server.execution:PLATFORM}") ExecutionMode mode) {
+        this.virtualThreadExecutor = mode == ExecutionMode.VIRTUAL ? newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    /**
+     * Replace Tomcat's request thread pool with the virtual-thread executor in VIRTUAL mode
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutorCustomizer() {
+        return protocolHandler -> {
+            if (virtualThreadExecutor != null) {
+                protocolHandler.setExecutor(virtualThreadExecutor);
+            }
+        };
+    }
+
+    /**
+     * Run async request processing (StreamingResponseBody, Callable) on virtual threads in VIRTUAL mode
+     */
+    @Bean
+    public WebMvcConfigurer asyncExecutorConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                if (virtualThreadExecutor != null) {
+                    configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+                }
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("carmgmt.server.execution=VIRTUAL requires Java 21 or later, but the "
+                    + "backend is running on Java " + Runtime.version().feature(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual-thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.carmgmt.config;
+
+/**
+ * Threads that run HTTP requests (controllers, servlets and async request processing)
+ */
+public enum ExecutionMode {
+    /**
+     * Tomcat's bounded platform-thread pool, sized by server.tomcat.threads.max
+     */
+    PLATFORM,
+
+    /**
+     * A new virtual thread per request; requires Java 21 or later
+     */
+    VIRTUAL
+}
@@ -20,6 +20,8 @@ public class ServletConfig {
         ServletRegistrationBean<FuelStatsServlet> registration = 
                 new ServletRegistrationBean<>(fuelStatsServlet, "/servlet/fuel-stats");
         registration.setName("fuelStatsServlet");
+        // The servlet writes its response through AsyncContext and a non-blocking WriteListener
+        registration.setAsyncSupported(true);
         return registration;
     }
 }
@@ -0,0 +1,50 @@
+package com.carmgmt.config;
+
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.repository.CarRepository;
+import com.carmgmt.repository.FsyncPolicy;
+import com.carmgmt.repository.InstrumentedCarRepository;
+import com.carmgmt.repository.MutationLog;
+import com.carmgmt.repository.StorageBackend;
+import com.carmgmt.repository.WriteAheadLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Storage configuration
+ */
+@Configuration
+public class StorageConfig {
+
+    /**
+     * Write-ahead log and snapshots for durable mode; a no-op log when carmgmt.storage.wal.enabled is false
+     */
+    @Bean(destroyMethod = "close")
+    public MutationLog mutationLog(
+            @Value("${carmgmt.storage.wal.enabled:false}") boolean enabled,
+            @Value("${carmgmt.storage.wal.directory:data}") String directory,
+            @Value("${carmgmt.storage.wal.fsync:GROUP}") FsyncPolicy fsyncPolicy,
+            @Value("${carmgmt.storage.wal.flush-interval-ms:10}") long flushIntervalMillis,
+            @Value("${carmgmt.storage.wal.compaction-threshold-bytes:67108864}") long compactionThresholdBytes,
+            @Value("${carmgmt.storage.snapshot.interval-ms:300000}") long snapshotIntervalMillis) {
+        if (!enabled) {
+            return MutationLog.NONE;
+        }
+        return new WriteAheadLog(Paths.get(directory), fsyncPolicy, flushIntervalMillis,
+                compactionThresholdBytes, snapshotIntervalMillis);
+    }
+
+    /**
+     * The repository backend named by carmgmt.storage.backend, recovered from the mutation log at startup
+     */
+    @Bean(initMethod = "recover")
+    public CarRepository carRepository(
+            @Value("${carmgmt.storage.backend:" + StorageBackend.CONCURRENT + "}") String backend,
+            MutationLog mutationLog,
+            MetricsRegistry metrics) {
+        return new InstrumentedCarRepository(StorageBackend.create(backend, mutationLog), metrics);
+    }
+}
@@ -0,0 +1,35 @@
+package com.carmgmt.controller;
+
+import com.carmgmt.dto.ApiResponse;
+import com.carmgmt.dto.CacheStats;
+import com.carmgmt.service.FuelStatsCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for cache diagnostics
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    private final FuelStatsCache fuelStatsCache;
+
+    @Autowired
+    public CacheController(FuelStatsCache fuelStatsCache) {
+        this.fuelStatsCache = fuelStatsCache;
+    }
+
+    /**
+     * Get hit, miss, coalescing and eviction counters of the serialized fuel stats cache
+     */
+    @GetMapping("/fuel-stats")
+    public ResponseEntity<ApiResponse<CacheStats>> getFuelStatsCacheStats() {
+        CacheStats stats = new CacheStats(fuelStatsCache.getHits(), fuelStatsCache.getMisses(),
+                fuelStatsCache.getCoalesced(), fuelStatsCache.getEvictions(), fuelStatsCache.getInvalidations(),
+                fuelStatsCache.size(), fuelStatsCache.getMaxEntries());
+        return ResponseEntity.ok(ApiResponse.success("Cache statistics retrieved successfully", stats));
+    }
+}
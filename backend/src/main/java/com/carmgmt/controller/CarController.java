@@ -2,17 +2,37 @@ package com.carmgmt.controller;
 
 import com.carmgmt.dto.AddFuelRequest;
 import com.carmgmt.dto.ApiResponse;
+import com.carmgmt.dto.BulkFuelRequest;
+import com.carmgmt.dto.CarSummary;
+import com.carmgmt.dto.CarView;
 import com.carmgmt.dto.CreateCarRequest;
+import com.carmgmt.dto.CursorPage;
+import com.carmgmt.dto.FuelBatchResult;
+import com.carmgmt.dto.SortOrder;
+import com.carmgmt.exception.ValidationException;
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.metrics.OperationTimer;
 import com.carmgmt.model.Car;
+import com.carmgmt.model.FixedPoint;
 import com.carmgmt.model.FuelEntry;
 import com.carmgmt.model.FuelStats;
 import com.carmgmt.service.CarService;
+import com.carmgmt.web.ETags;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -21,11 +41,26 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/cars")
 public class CarController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final CarService carService;
+    private final ObjectMapper objectMapper;
+    // Time each handler call; response serialization happens after it returns
+    private final OperationTimer createTimer;
+    private final OperationTimer listTimer;
+    private final OperationTimer addFuelTimer;
+    private final OperationTimer addFuelBatchTimer;
+    private final OperationTimer statsTimer;
 
     @Autowired
-    public CarController(CarService carService) {
+    public CarController(CarService carService, ObjectMapper objectMapper, MetricsRegistry metrics) {
         this.carService = carService;
+        this.objectMapper = objectMapper;
+        this.createTimer = metrics.timer(MetricsRegistry.CONTROLLER, "create");
+        this.listTimer = metrics.timer(MetricsRegistry.CONTROLLER, "list");
+        this.addFuelTimer = metrics.timer(MetricsRegistry.CONTROLLER, "add-fuel");
+        this.addFuelBatchTimer = metrics.timer(MetricsRegistry.CONTROLLER, "add-fuel-batch");
+        this.statsTimer = metrics.timer(MetricsRegistry.CONTROLLER, "stats");
     }
 
     /**
@@ -33,29 +68,90 @@ public class CarController {
      */
     @PostMapping
     public ResponseEntity<ApiResponse<Car>> createCar(@Valid @RequestBody CreateCarRequest request) {
-        Car car = carService.createCar(request.getBrand(), request.getModel(), request.getYear());
-        ApiResponse<Car> response = ApiResponse.success("Car created successfully", car);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        long start = createTimer.start();
+        try {
+            Car car = carService.createCar(request.getBrand(), request.getModel(), request.getYear());
+            ApiResponse<Car> response = ApiResponse.success("Car created successfully", car);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } finally {
+            createTimer.stop(start);
+        }
     }
 
     /**
-     * Get all cars
+     * Get all cars, or one page of cars ordered by ID when "after" or "limit" is given.
+     * view=summary returns each car without its fuel history
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Car>>> getAllCars() {
-        List<Car> cars = carService.getAllCars();
-        ApiResponse<List<Car>> response = ApiResponse.success("Cars retrieved successfully", cars);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ApiResponse<?>> getAllCars(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "view", required = false) String view) {
+        long start = listTimer.start();
+        try {
+            boolean summary = CarView.parse(view) == CarView.SUMMARY;
+            if (after == null && limit == null) {
+                List<Car> cars = carService.getAllCars();
+                Object data = summary ? carService.summarize(cars) : cars;
+                return ResponseEntity.ok(ApiResponse.success("Cars retrieved successfully", data));
+            }
+            CursorPage<Car> page = carService.getCarsPage(after, limit != null ? limit : DEFAULT_PAGE_SIZE);
+            Object data = summary
+                    ? new CursorPage<>(carService.summarize(page.getItems()), page.getNextCursor(), page.isHasMore())
+                    : page;
+            return ResponseEntity.ok(ApiResponse.success("Cars retrieved successfully", data));
+        } finally {
+            listTimer.stop(start);
+        }
     }
 
     /**
-     * Get a car by ID
+     * Stream all cars ordered by ID, writing them one at a time so memory use
+     * does not depend on fleet size; view=summary as for {@link #getAllCars}
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllCars(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "view", required = false) String view) {
+        boolean summary = CarView.parse(view) == CarView.SUMMARY;
+        ObjectWriter carWriter = objectMapper.writerFor(summary ? CarSummary.class : Car.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", "Cars retrieved successfully");
+                generator.writeArrayFieldStart("errors");
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("data");
+                for (Car car : carService.iterateCars(after)) {
+                    carWriter.writeValue(generator, summary ? carService.summarize(car) : car);
+                }
+                generator.writeEndArray();
+                generator.writeObjectField("meta", new ApiResponse.Meta());
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Get a car by ID, without its fuel history for view=summary;
+     * 304 when If-None-Match carries its current ETag
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Car>> getCarById(@PathVariable("id") Long id) {
+    public ResponseEntity<ApiResponse<?>> getCarById(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "view", required = false) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CarView carView = CarView.parse(view);
         Car car = carService.getCarById(id);
-        ApiResponse<Car> response = ApiResponse.success("Car retrieved successfully", car);
-        return ResponseEntity.ok(response);
+        String etag = ETags.of(car.getVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Object data = carView == CarView.SUMMARY ? carService.summarize(car) : car;
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.success("Car retrieved successfully", data));
     }
 
     /**
@@ -87,25 +183,123 @@ public class CarController {
     public ResponseEntity<ApiResponse<FuelEntry>> addFuelEntry(
             @PathVariable("id") Long id,
             @Valid @RequestBody AddFuelRequest request) {
-        FuelEntry fuelEntry = carService.addFuelEntry(
-                id, 
-                request.getLiters(), 
-                request.getPrice() != null ? request.getPrice().doubleValue() : null, 
-                request.getOdometer()
-        );
-        ApiResponse<FuelEntry> response = ApiResponse.success("Fuel entry added successfully", fuelEntry);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        long start = addFuelTimer.start();
+        try {
+            FuelEntry fuelEntry = carService.addFuelEntry(
+                    id,
+                    request.getLiters() != null ? FixedPoint.toMilliliters(request.getLiters()) : null,
+                    request.getPrice() != null ? FixedPoint.toMinorUnits(request.getPrice()) : null,
+                    request.getOdometer(),
+                    request.getTimestamp()
+            );
+            ApiResponse<FuelEntry> response = ApiResponse.success("Fuel entry added successfully", fuelEntry);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } finally {
+            addFuelTimer.stop(start);
+        }
+    }
+
+    /**
+     * Get one page of a car's fuel history, oldest first or with order=desc newest first.
+     * "after" continues from an entry ID (the previous page's nextCursor); afterOdometer starts
+     * past an odometer reading. 304 when If-None-Match carries the car's current ETag
+     */
+    @GetMapping("/{id}/fuel")
+    public ResponseEntity<ApiResponse<CursorPage<FuelEntry>>> getFuelEntries(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "afterOdometer", required = false) Integer afterOdometer,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "order", required = false) String order,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SortOrder sortOrder = SortOrder.parse(order);
+        // Read the version before the page, so the tag never claims newer data than the body holds
+        String etag = ETags.of(carService.getCarById(id).getVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        CursorPage<FuelEntry> page = carService.getFuelEntriesPage(
+                id, after, afterOdometer, sortOrder, limit != null ? limit : DEFAULT_PAGE_SIZE);
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.success("Fuel entries retrieved successfully", page));
     }
 
     /**
-     * Get fuel statistics for a car
+     * Add a batch of fuel entries to a car.
+     * Responds 201 if every item was accepted, otherwise 200 with the per-item results
+     */
+    @PostMapping("/{id}/fuel/batch")
+    public ResponseEntity<ApiResponse<FuelBatchResult>> addFuelEntries(
+            @PathVariable("id") Long id,
+            @RequestBody List<AddFuelRequest> requests) {
+        long start = addFuelBatchTimer.start();
+        try {
+            return batchResponse(carService.addFuelEntries(id, requests));
+        } finally {
+            addFuelBatchTimer.stop(start);
+        }
+    }
+
+    /**
+     * Add fuel entries for several cars, each item naming its car.
+     * Responds 201 if every item was accepted, otherwise 200 with the per-item results
+     */
+    @PostMapping("/fuel/batch")
+    public ResponseEntity<ApiResponse<FuelBatchResult>> addFuelEntriesBulk(
+            @RequestBody List<BulkFuelRequest> requests) {
+        long start = addFuelBatchTimer.start();
+        try {
+            return batchResponse(carService.addFuelEntriesBulk(requests));
+        } finally {
+            addFuelBatchTimer.stop(start);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<FuelBatchResult>> batchResponse(FuelBatchResult result) {
+        String message = String.format("Added %d of %d fuel entries",
+                result.getAccepted(), result.getAccepted() + result.getRejected());
+        HttpStatus status = result.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(ApiResponse.success(message, result));
+    }
+
+    /**
+     * Get fuel statistics for a car, optionally limited to fill-ups between two dates (inclusive, UTC)
+     * or between two odometer readings (inclusive).
+     * Answers 304 without computing anything when If-None-Match carries the car's current ETag
      */
     @GetMapping("/{id}/fuel/stats")
-    public ResponseEntity<ApiResponse<FuelStats>> getFuelStats(
-            @PathVariable("id") Long id) {
-        FuelStats stats = carService.getFuelStats(id);
-        ApiResponse<FuelStats> response = ApiResponse.success("Fuel statistics retrieved successfully", stats);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> getFuelStats(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "fromOdometer", required = false) Integer fromOdometer,
+            @RequestParam(value = "toOdometer", required = false) Integer toOdometer,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long start = statsTimer.start();
+        try {
+            boolean dateRange = from != null || to != null;
+            boolean odometerRange = fromOdometer != null || toOdometer != null;
+            if (dateRange && odometerRange) {
+                throw new ValidationException("Date and odometer ranges cannot be combined");
+            }
+            // Read the version before computing, so the tag never claims newer data than the body holds
+            Car car = carService.getCarById(id);
+            String etag = ETags.of(car.getVersion());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            if (!dateRange && !odometerRange) {
+                // Full-history stats are served as pre-serialized bytes from the stats cache
+                byte[] body = carService.getFuelStatsResponse(car).getBody();
+                return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+            }
+            FuelStats stats = dateRange
+                    ? carService.getFuelStats(id, from, to)
+                    : carService.getFuelStatsByOdometer(id, fromOdometer, toOdometer);
+            ApiResponse<FuelStats> response = ApiResponse.success("Fuel statistics retrieved successfully", stats);
+            return ResponseEntity.ok().eTag(etag).body(response);
+        } finally {
+            statsTimer.stop(start);
+        }
     }
 }
 
@@ -0,0 +1,64 @@
+package com.carmgmt.controller;
+
+import com.carmgmt.service.ExportService;
+import com.carmgmt.web.ContentCodings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controller for bulk data export
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportController(ExportService exportService, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stream every car and fuel entry as newline-delimited JSON, gzip-compressed if the
+     * client accepts it with a non-zero quality. "since" limits fuel entries to IDs greater than the given one
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = ContentCodings.accepts(acceptEncoding, "gzip");
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE)) {
+                    exportService.exportNdjson(compressed, objectMapper.getFactory(), since);
+                }
+            } else {
+                exportService.exportNdjson(outputStream, objectMapper.getFactory(), since);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
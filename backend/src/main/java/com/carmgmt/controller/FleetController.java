@@ -0,0 +1,34 @@
+package com.carmgmt.controller;
+
+import com.carmgmt.dto.ApiResponse;
+import com.carmgmt.model.FleetStats;
+import com.carmgmt.service.CarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for fleet-wide endpoints
+ */
+@RestController
+@RequestMapping("/api/fleet")
+public class FleetController {
+    private final CarService carService;
+
+    @Autowired
+    public FleetController(CarService carService) {
+        this.carService = carService;
+    }
+
+    /**
+     * Get fuel statistics across all cars
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<FleetStats>> getFleetStats() {
+        FleetStats stats = carService.getFleetStats();
+        ApiResponse<FleetStats> response = ApiResponse.success("Fleet statistics retrieved successfully", stats);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,33 @@
+package com.carmgmt.controller;
+
+import com.carmgmt.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller exposing metrics for Prometheus to scrape
+ */
+@RestController
+public class MetricsController {
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final MetricsRegistry metrics;
+
+    @Autowired
+    public MetricsController(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get every metric in the Prometheus text exposition format
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics() {
+        StringBuilder body = new StringBuilder(16 * 1024);
+        metrics.writePrometheus(body);
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(body.toString());
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 /**
  * Request DTO for adding a fuel entry
@@ -12,7 +13,7 @@ import java.math.BigDecimal;
 public class AddFuelRequest {
     @NotNull(message = "Liters cannot be null")
     @Positive(message = "Liters must be a positive number")
-    private Double liters;
+    private BigDecimal liters;
 
     @NotNull(message = "Price cannot be null")
     @Positive(message = "Price must be a positive number")
@@ -22,11 +23,14 @@ public class AddFuelRequest {
     @Min(value = 0, message = "Odometer must be a non-negative number")
     private Integer odometer;
 
-    public Double getLiters() {
+    // Optional; the server's current time is used when omitted
+    private Instant timestamp;
+
+    public BigDecimal getLiters() {
         return liters;
     }
 
-    public void setLiters(Double liters) {
+    public void setLiters(BigDecimal liters) {
         this.liters = liters;
     }
 
@@ -45,5 +49,12 @@ public class AddFuelRequest {
     public void setOdometer(Integer odometer) {
         this.odometer = odometer;
     }
-}
 
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+}
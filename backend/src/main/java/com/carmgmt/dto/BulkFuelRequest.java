@@ -0,0 +1,16 @@
+package com.carmgmt.dto;
+
+/**
+ * Request DTO for one item of a cross-car bulk fuel upload
+ */
+public class BulkFuelRequest extends AddFuelRequest {
+    private Long carId;
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+}
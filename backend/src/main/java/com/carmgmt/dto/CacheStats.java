@@ -0,0 +1,64 @@
+package com.carmgmt.dto;
+
+/**
+ * Counters of a response cache
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long coalesced;
+    private final long evictions;
+    private final long invalidations;
+    private final int size;
+    private final int maxEntries;
+
+    public CacheStats(long hits, long misses, long coalesced, long evictions, long invalidations,
+                      int size, int maxEntries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.coalesced = coalesced;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.size = size;
+        this.maxEntries = maxEntries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Fraction of lookups served from the cache, 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Misses that waited for a concurrent caller's computation instead of computing their own
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
@@ -0,0 +1,49 @@
+package com.carmgmt.dto;
+
+import com.carmgmt.model.FuelStats;
+
+/**
+ * A car without its fuel history: details, number of fuel entries and the statistics
+ * kept up to date on every append, so its size does not depend on the history length
+ */
+public class CarSummary {
+    private final Long id;
+    private final String brand;
+    private final String model;
+    private final Integer year;
+    private final int fuelEntryCount;
+    private final FuelStats fuelStats;
+
+    public CarSummary(Long id, String brand, String model, Integer year, int fuelEntryCount, FuelStats fuelStats) {
+        this.id = id;
+        this.brand = brand;
+        this.model = model;
+        this.year = year;
+        this.fuelEntryCount = fuelEntryCount;
+        this.fuelStats = fuelStats;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public int getFuelEntryCount() {
+        return fuelEntryCount;
+    }
+
+    public FuelStats getFuelStats() {
+        return fuelStats;
+    }
+}
@@ -0,0 +1,36 @@
+package com.carmgmt.dto;
+
+import com.carmgmt.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * Representation of a car in API responses, selected with the "view" query parameter
+ */
+public enum CarView {
+    /**
+     * Car details with the complete fuel history
+     */
+    FULL,
+    /**
+     * Car details, entry count and fuel statistics, without the fuel history
+     */
+    SUMMARY;
+
+    /**
+     * Parse a view parameter case-insensitively; null means {@link #FULL}
+     */
+    public static CarView parse(String value) {
+        if (value == null) {
+            return FULL;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "full":
+                return FULL;
+            case "summary":
+                return SUMMARY;
+            default:
+                throw new ValidationException("View must be 'summary' or 'full'");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.carmgmt.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing
+ */
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor;
+    private boolean hasMore;
+
+    public CursorPage() {
+        this.items = new ArrayList<>();
+    }
+
+    public CursorPage(List<T> items, Long nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items == null ? new ArrayList<>() : new ArrayList<>(items);
+    }
+
+    /**
+     * Cursor to pass as "after" to fetch the next page; null when there are no more items
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,125 @@
+package com.carmgmt.dto;
+
+import com.carmgmt.model.FuelEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch fuel upload, with one result per submitted item in submission order
+ */
+public class FuelBatchResult {
+    private int accepted;
+    private int rejected;
+    private List<Item> results;
+
+    public FuelBatchResult() {
+        this.results = new ArrayList<>();
+    }
+
+    public FuelBatchResult(List<Item> results) {
+        this.results = results;
+        for (Item item : results) {
+            if (item.isSuccess()) {
+                accepted++;
+            } else {
+                rejected++;
+            }
+        }
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results == null ? new ArrayList<>() : new ArrayList<>(results);
+    }
+
+    /**
+     * Result for a single item: the stored entry if accepted, otherwise the reason it was rejected
+     */
+    public static class Item {
+        private int index;
+        private Long carId;
+        private boolean success;
+        private FuelEntry fuelEntry;
+        private String error;
+
+        public Item() {
+        }
+
+        public static Item accepted(int index, Long carId, FuelEntry fuelEntry) {
+            Item item = new Item();
+            item.index = index;
+            item.carId = carId;
+            item.success = true;
+            item.fuelEntry = fuelEntry;
+            return item;
+        }
+
+        public static Item rejected(int index, Long carId, String error) {
+            Item item = new Item();
+            item.index = index;
+            item.carId = carId;
+            item.error = error;
+            return item;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public Long getCarId() {
+            return carId;
+        }
+
+        public void setCarId(Long carId) {
+            this.carId = carId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public FuelEntry getFuelEntry() {
+            return fuelEntry;
+        }
+
+        public void setFuelEntry(FuelEntry fuelEntry) {
+            this.fuelEntry = fuelEntry;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
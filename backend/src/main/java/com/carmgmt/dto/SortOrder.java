@@ -0,0 +1,36 @@
+package com.carmgmt.dto;
+
+import com.carmgmt.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * Direction of a paginated listing, selected with the "order" query parameter
+ */
+public enum SortOrder {
+    /**
+     * Oldest first
+     */
+    ASC,
+    /**
+     * Newest first
+     */
+    DESC;
+
+    /**
+     * Parse an order parameter case-insensitively; null means {@link #ASC}
+     */
+    public static SortOrder parse(String value) {
+        if (value == null) {
+            return ASC;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "asc":
+                return ASC;
+            case "desc":
+                return DESC;
+            default:
+                throw new ValidationException("Order must be 'asc' or 'desc'");
+        }
+    }
+}
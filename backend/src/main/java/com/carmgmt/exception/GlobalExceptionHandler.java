@@ -1,15 +1,19 @@
 package com.carmgmt.exception;
 
 import com.carmgmt.dto.ApiResponse;
+import com.carmgmt.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -19,36 +23,63 @@ import java.util.stream.Collectors;
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final String ERRORS = "carmgmt_api_errors_total";
+    private static final String ERRORS_HELP = "API requests answered with an error, by status";
+
+    private final LongAdder badRequests;
+    private final LongAdder notFound;
+    private final LongAdder conflicts;
+    private final LongAdder serverErrors;
+
+    @Autowired
+    public GlobalExceptionHandler(MetricsRegistry metrics) {
+        this.badRequests = metrics.counter(ERRORS, ERRORS_HELP, "status=\"400\"");
+        this.notFound = metrics.counter(ERRORS, ERRORS_HELP, "status=\"404\"");
+        this.conflicts = metrics.counter(ERRORS, ERRORS_HELP, "status=\"409\"");
+        this.serverErrors = metrics.counter(ERRORS, ERRORS_HELP, "status=\"500\"");
+    }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Object>> handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
         String errorMessage = e.getBindingResult().getFieldErrors().stream()
                 .map(FieldError::getDefaultMessage)
                 .collect(Collectors.joining(", "));
+        badRequests.increment();
         ApiResponse<Object> response = ApiResponse.error("Validation failed: " + errorMessage);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiResponse<Object>> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException e) {
+        badRequests.increment();
+        ApiResponse<Object> response = ApiResponse.error("Invalid value for parameter '" + e.getName() + "'");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ApiResponse<Object>> handleValidationException(ValidationException e) {
+        badRequests.increment();
         ApiResponse<Object> response = ApiResponse.error(e.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
     @ExceptionHandler(CarNotFoundException.class)
     public ResponseEntity<ApiResponse<Object>> handleCarNotFoundException(CarNotFoundException e) {
+        notFound.increment();
         ApiResponse<Object> response = ApiResponse.error(e.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
     @ExceptionHandler(DuplicateCarException.class)
     public ResponseEntity<ApiResponse<Object>> handleDuplicateCarException(DuplicateCarException e) {
+        conflicts.increment();
         ApiResponse<Object> response = ApiResponse.error(e.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Object>> handleIllegalArgumentException(IllegalArgumentException e) {
+        badRequests.increment();
         ApiResponse<Object> response = ApiResponse.error(e.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
@@ -56,6 +87,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGenericException(Exception e) {
         logger.error("Unexpected error", e);
+        serverErrors.increment();
         ApiResponse<Object> response = ApiResponse.error("An unexpected error occurred");
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
@@ -0,0 +1,196 @@
+package com.carmgmt.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-local metrics: operation timers, counters and gauges, written in the Prometheus
+ * text exposition format.
+ * <p>
+ * Components look their timers up once, at construction, and record into them directly.
+ * Gauges and function counters are read only when metrics are scraped, so they cost nothing
+ * on the request path. With carmgmt.metrics.enabled=false timers record nothing.
+ */
+@Component
+public class MetricsRegistry {
+    /**
+     * Layers with their own timers
+     */
+    public static final String CONTROLLER = "controller";
+    public static final String SERVLET = "servlet";
+    public static final String SERVICE = "service";
+    public static final String REPOSITORY = "repository";
+
+    private static final String CALLS = "carmgmt_operations_total";
+    private static final String DURATION = "carmgmt_operation_duration_seconds";
+
+    private final boolean enabled;
+    private final int sampleRate;
+    private final ConcurrentMap<String, OperationTimer> timers = new ConcurrentHashMap<>();
+    private final List<OperationTimer> timerOrder = new CopyOnWriteArrayList<>();
+    private final List<Series> series = new CopyOnWriteArrayList<>();
+
+    /**
+     * sampleRate applies to {@link #sampledTimer} and must be a power of two
+     */
+    @Autowired
+    public MetricsRegistry(@Value("${carmgmt.metrics.enabled:true}") boolean enabled,
+                           @Value("${carmgmt.metrics.sample-rate:16}") int sampleRate) {
+        if (sampleRate < 1 || Integer.bitCount(sampleRate) != 1) {
+            throw new IllegalArgumentException("carmgmt.metrics.sample-rate must be a power of two");
+        }
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * A registry whose timers record nothing
+     */
+    public static MetricsRegistry disabled() {
+        return new MetricsRegistry(false, 1);
+    }
+
+    /**
+     * Timer that measures every call; for request handlers, where a call costs microseconds
+     */
+    public OperationTimer timer(String layer, String operation) {
+        return timer(layer, operation, 1);
+    }
+
+    /**
+     * Timer that counts every call but measures 1 in carmgmt.metrics.sample-rate;
+     * for in-memory operations that take well under a microsecond
+     */
+    public OperationTimer sampledTimer(String layer, String operation) {
+        return timer(layer, operation, sampleRate);
+    }
+
+    private OperationTimer timer(String layer, String operation, int rate) {
+        return timers.computeIfAbsent(layer + '\0' + operation, key -> {
+            OperationTimer timer = new OperationTimer(layer, operation, enabled, rate);
+            timerOrder.add(timer);
+            return timer;
+        });
+    }
+
+    /**
+     * Counter incremented by the caller; labels are written as given, e.g. type="validation"
+     */
+    public LongAdder counter(String name, String help, String labels) {
+        LongAdder counter = new LongAdder();
+        series.add(new Series(name, help, "counter", labels, counter::sum));
+        return counter;
+    }
+
+    /**
+     * Counter whose value is read from the supplier when scraped
+     */
+    public void functionCounter(String name, String help, DoubleSupplier value) {
+        series.add(new Series(name, help, "counter", null, value));
+    }
+
+    /**
+     * Gauge whose value is read from the supplier when scraped
+     */
+    public void gauge(String name, String help, DoubleSupplier value) {
+        series.add(new Series(name, help, "gauge", null, value));
+    }
+
+    /**
+     * Write every metric in the Prometheus text format (version 0.0.4)
+     */
+    public void writePrometheus(StringBuilder out) {
+        List<OperationTimer> timers = new ArrayList<>(timerOrder);
+        header(out, CALLS, "Operations completed, by layer and operation", "counter");
+        for (OperationTimer timer : timers) {
+            sample(out, CALLS, labels(timer), timer.getCalls());
+        }
+
+        header(out, DURATION, "Operation latency; service and repository calls are sampled", "histogram");
+        for (OperationTimer timer : timers) {
+            String labels = labels(timer);
+            long[] counts = timer.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < OperationTimer.BOUNDS.length; i++) {
+                cumulative += counts[i];
+                sample(out, DURATION + "_bucket", labels + ",le=\"" + seconds(OperationTimer.BOUNDS[i]) + '"',
+                        cumulative);
+            }
+            cumulative += counts[counts.length - 1];
+            sample(out, DURATION + "_bucket", labels + ",le=\"+Inf\"", cumulative);
+            out.append(DURATION).append("_sum{").append(labels).append("} ")
+                    .append(seconds(timer.sumNanos())).append('\n');
+            sample(out, DURATION + "_count", labels, cumulative);
+        }
+
+        Map<String, List<Series>> byName = new LinkedHashMap<>();
+        for (Series s : series) {
+            byName.computeIfAbsent(s.name, name -> new ArrayList<>()).add(s);
+        }
+        for (List<Series> group : byName.values()) {
+            Series first = group.get(0);
+            header(out, first.name, first.help, first.type);
+            for (Series s : group) {
+                out.append(s.name);
+                if (s.labels != null) {
+                    out.append('{').append(s.labels).append('}');
+                }
+                out.append(' ').append(format(s.value.getAsDouble())).append('\n');
+            }
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static String labels(OperationTimer timer) {
+        return "layer=\"" + timer.getLayer() + "\",operation=\"" + timer.getOperation() + '"';
+    }
+
+    private static String seconds(long nanos) {
+        BigDecimal seconds = BigDecimal.valueOf(nanos, 9).stripTrailingZeros();
+        return seconds.signum() == 0 ? "0" : seconds.toPlainString();
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+
+    private static final class Series {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final String labels;
+        private final DoubleSupplier value;
+
+        Series(String name, String help, String type, String labels, DoubleSupplier value) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labels = labels;
+            this.value = value;
+        }
+    }
+}
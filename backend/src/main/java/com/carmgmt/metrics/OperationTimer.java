@@ -0,0 +1,111 @@
+package com.carmgmt.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counter and latency histogram for one operation in one layer.
+ * <p>
+ * Every call is counted. Latency is measured for every call, or for a random 1 in
+ * sampleRate calls where even two {@link System#nanoTime()} reads would be a noticeable share
+ * of the operation. Buckets are fixed and recorded into {@link LongAdder}s, so recording
+ * never locks or allocates.
+ * <pre>
+ * long start = timer.start();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop(start);
+ * }
+ * </pre>
+ */
+public final class OperationTimer {
+    // Bucket upper bounds in nanoseconds, 1 µs to 10 s
+    static final long[] BOUNDS = {
+            1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L};
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final String layer;
+    private final String operation;
+    private final boolean enabled;
+    // sampleRate - 1; sampleRate is a power of two
+    private final int sampleMask;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    OperationTimer(String layer, String operation, boolean enabled, int sampleRate) {
+        if (sampleRate < 1 || Integer.bitCount(sampleRate) != 1) {
+            throw new IllegalArgumentException("Sample rate must be a power of two: " + sampleRate);
+        }
+        this.layer = layer;
+        this.operation = operation;
+        this.enabled = enabled;
+        this.sampleMask = sampleRate - 1;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Begin a call; pass the result to {@link #stop}
+     */
+    public long start() {
+        if (!enabled || (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0)) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * End a call begun with {@link #start}
+     */
+    public void stop(long start) {
+        if (!enabled) {
+            return;
+        }
+        calls.increment();
+        if (start != NOT_SAMPLED) {
+            long elapsed = System.nanoTime() - start;
+            int bucket = 0;
+            while (bucket < BOUNDS.length && elapsed > BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            sumNanos.add(elapsed);
+        }
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Calls completed, sampled or not
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Number of timed calls in each bucket (not cumulative); the last bucket is above 10 s
+     */
+    long[] bucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    long sumNanos() {
+        return sumNanos.sum();
+    }
+}
@@ -1,8 +1,8 @@
 package com.carmgmt.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
 
@@ -15,17 +15,22 @@ public class Car {
     private String brand;
     private String model;
     private Integer year;
-    private List<FuelEntry> fuelEntries;
+    private volatile FuelEntryStore fuelEntries;
+    private volatile FuelTotals fuelTotals = FuelTotals.EMPTY;
+    // Guarded by this car's monitor
+    private FuelRollups fuelRollups = new FuelRollups();
+    // Bumped by every mutation, under this car's monitor
+    private volatile long version;
 
     public Car() {
-        this.fuelEntries = new ArrayList<>();
+        this.fuelEntries = new FuelEntryStore();
     }
 
     public Car(String brand, String model, Integer year) {
         this.brand = brand;
         this.model = model;
         this.year = year;
-        this.fuelEntries = new ArrayList<>();
+        this.fuelEntries = new FuelEntryStore();
     }
 
     public Long getId() {
@@ -42,6 +47,7 @@ public class Car {
 
     public void setBrand(String brand) {
         this.brand = brand;
+        version++;
     }
 
     public String getModel() {
@@ -50,6 +56,7 @@ public class Car {
 
     public void setModel(String model) {
         this.model = model;
+        version++;
     }
 
     public Integer getYear() {
@@ -58,27 +65,119 @@ public class Car {
 
     public void setYear(Integer year) {
         this.year = year;
+        version++;
     }
 
     public List<FuelEntry> getFuelEntries() {
-        if (fuelEntries == null) {
-            fuelEntries = new ArrayList<>();
+        return fuelEntries.asList();
+    }
+
+    public synchronized void setFuelEntries(List<FuelEntry> fuelEntries) {
+        FuelEntryStore store = new FuelEntryStore(fuelEntries == null ? 0 : fuelEntries.size());
+        if (fuelEntries != null) {
+            for (FuelEntry fuelEntry : fuelEntries) {
+                store.append(fuelEntry);
+            }
         }
-        return Collections.unmodifiableList(fuelEntries);
+        replaceFuelEntries(store);
     }
 
-    public void setFuelEntries(List<FuelEntry> fuelEntries) {
-        this.fuelEntries = fuelEntries == null ? new ArrayList<>() : new ArrayList<>(fuelEntries);
+    /**
+     * Replace the whole fuel history with the given store and recompute the totals
+     */
+    public synchronized void replaceFuelEntries(FuelEntryStore store) {
+        this.fuelEntries = store;
+        this.fuelTotals = FuelTotals.of(store);
+        this.fuelRollups = FuelRollups.of(store);
+        version++;
     }
 
-    public void addFuelEntry(FuelEntry fuelEntry) {
+    public synchronized void addFuelEntry(FuelEntry fuelEntry) {
         if (fuelEntry == null) {
             throw new IllegalArgumentException("FuelEntry cannot be null");
         }
-        if (fuelEntries == null) {
-            fuelEntries = new ArrayList<>();
+        this.fuelEntries.append(fuelEntry);
+        addToRollups(fuelEntry, fuelTotals);
+        this.fuelTotals = fuelTotals.plus(fuelEntry);
+        version++;
+    }
+
+    /**
+     * Append several entries, publishing the new totals once
+     */
+    public synchronized void addFuelEntries(List<FuelEntry> entries) {
+        FuelTotals totals = fuelTotals;
+        for (FuelEntry fuelEntry : entries) {
+            if (fuelEntry == null) {
+                throw new IllegalArgumentException("FuelEntry cannot be null");
+            }
+            this.fuelEntries.append(fuelEntry);
+            addToRollups(fuelEntry, totals);
+            totals = totals.plus(fuelEntry);
+        }
+        this.fuelTotals = totals;
+        version++;
+    }
+
+    /**
+     * Sum volume and cost of the fill-ups with odometer readings between from and to (inclusive)
+     * from the fuel history's running totals, in O(log n) while it is sorted by odometer
+     */
+    public FuelEntryStore.OdometerRange sumOdometerRange(int from, int to) {
+        return fuelEntries.sumByOdometer(from, to);
+    }
+
+    /**
+     * Sum volume, cost and distance of the fill-ups between from and to (inclusive, UTC dates)
+     * from the daily and monthly rollups; a null bound is open
+     */
+    public synchronized FuelRollups.Range sumFuelRollups(LocalDate from, LocalDate to) {
+        return fuelRollups.sum(from, to);
+    }
+
+    // Distance is measured from the highest odometer reading before this entry
+    private void addToRollups(FuelEntry fuelEntry, FuelTotals before) {
+        if (fuelEntry.getTimestamp() == null) {
+            return;
+        }
+        int distance = 0;
+        if (fuelEntry.getOdometer() != null && before.getOdometerCount() > 0) {
+            distance = Math.max(0, fuelEntry.getOdometer() - before.getMaxOdometer());
         }
-        this.fuelEntries.add(fuelEntry);
+        fuelRollups.add(fuelEntry.getTimestamp().toEpochMilli(),
+                millilitersOf(fuelEntry), priceMinorUnitsOf(fuelEntry), distance);
+    }
+
+    private static long millilitersOf(FuelEntry fuelEntry) {
+        return fuelEntry.getMilliliters() != null ? fuelEntry.getMilliliters() : FuelEntryStore.NO_AMOUNT;
+    }
+
+    private static long priceMinorUnitsOf(FuelEntry fuelEntry) {
+        return fuelEntry.getPriceMinorUnits() != null ? fuelEntry.getPriceMinorUnits() : FuelEntryStore.NO_AMOUNT;
+    }
+
+    /**
+     * Columnar fuel history backing {@link #getFuelEntries()}
+     */
+    @JsonIgnore
+    public FuelEntryStore getFuelEntryStore() {
+        return fuelEntries;
+    }
+
+    /**
+     * Counter bumped by every change to the car or its fuel history; starts at zero in each process
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Running aggregates over all fuel entries, updated on every append
+     */
+    @JsonIgnore
+    public FuelTotals getFuelTotals() {
+        return fuelTotals;
     }
 
     @Override
@@ -104,7 +203,7 @@ public class Car {
                ", brand='" + brand + '\'' +
                ", model='" + model + '\'' +
                ", year=" + year +
-               ", fuelEntriesCount=" + (fuelEntries != null ? fuelEntries.size() : 0) +
+               ", fuelEntriesCount=" + fuelEntries.size() +
                '}';
     }
 }
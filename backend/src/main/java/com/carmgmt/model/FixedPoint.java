@@ -0,0 +1,90 @@
+package com.carmgmt.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Scaled integer units for fuel volumes and money.
+ * <p>
+ * Volumes are kept in milliliters and amounts in minor currency units (cents), as {@code long}s,
+ * so sums over any history are exact and need no allocation. Values are rounded half up once,
+ * when they enter the system, and converted back to decimal liters and currency only when
+ * they are serialized. Conversions saturate instead of overflowing; callers reject values
+ * above {@link #MAX_MILLILITERS} and {@link #MAX_MINOR_UNITS}, which keeps a car's totals
+ * exact for over 90 million maximum-size fill-ups.
+ */
+public final class FixedPoint {
+    public static final int MILLILITERS_SCALE = 3;
+    public static final int MINOR_UNITS_SCALE = 2;
+    public static final long MILLILITERS_PER_LITER = 1000;
+    public static final long MINOR_UNITS_PER_UNIT = 100;
+    // Largest single fill-up accepted: 1,000,000 liters and 1,000,000,000 currency units
+    public static final long MAX_MILLILITERS = 1_000_000L * MILLILITERS_PER_LITER;
+    public static final long MAX_MINOR_UNITS = 1_000_000_000L * MINOR_UNITS_PER_UNIT;
+
+    private static final BigDecimal SATURATION = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private FixedPoint() {
+    }
+
+    public static long toMilliliters(BigDecimal liters) {
+        return scale(liters, MILLILITERS_SCALE);
+    }
+
+    public static long toMilliliters(double liters) {
+        return Math.round(liters * MILLILITERS_PER_LITER);
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return scale(amount, MINOR_UNITS_SCALE);
+    }
+
+    public static long toMinorUnits(double amount) {
+        return Math.round(amount * MINOR_UNITS_PER_UNIT);
+    }
+
+    /**
+     * Liters as the double closest to the exact decimal value, for serialization
+     */
+    public static double toLiters(long milliliters) {
+        return milliliters / (double) MILLILITERS_PER_LITER;
+    }
+
+    /**
+     * Currency units as the double closest to the exact decimal value, for serialization
+     */
+    public static double toAmount(long minorUnits) {
+        return minorUnits / (double) MINOR_UNITS_PER_UNIT;
+    }
+
+    /**
+     * Consumption in L/100km over the given distance in kilometres, computed from the exact
+     * volume with a single rounding; 0 when the distance is not positive
+     */
+    public static double litersPer100Km(long milliliters, long distance) {
+        if (distance <= 0) {
+            return 0.0;
+        }
+        // (ml / 1000) / km * 100
+        return milliliters / (distance * 10.0);
+    }
+
+    private static long scale(BigDecimal value, int scale) {
+        // Digits before the point once scaled, from the representation alone: a short number
+        // such as 1E999999999 must be bounded before anything expands it
+        long digits = (long) value.precision() - value.scale() + scale;
+        if (value.signum() == 0 || digits < 0) {
+            // Below 0.1 in the target unit, which rounds to 0
+            return 0;
+        }
+        if (digits > 19) {
+            // At least 10^19, beyond any long
+            return value.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+        }
+        BigDecimal scaled = value.movePointRight(scale).setScale(0, RoundingMode.HALF_UP);
+        if (scaled.abs().compareTo(SATURATION) > 0) {
+            return scaled.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+        }
+        return scaled.longValue();
+    }
+}
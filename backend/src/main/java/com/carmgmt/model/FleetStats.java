@@ -0,0 +1,95 @@
+package com.carmgmt.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Objects;
+
+/**
+ * Fleet-wide fuel statistics DTO; totals are exact {@link FixedPoint} values, as in {@link FuelStats}
+ */
+@JsonPropertyOrder({"carCount", "totalFuel", "totalCost", "averageConsumption"})
+public class FleetStats {
+    private long carCount;
+    private long totalMilliliters;
+    private long totalCostMinorUnits;
+    private Double averageConsumption;
+
+    public FleetStats() {
+    }
+
+    public FleetStats(long carCount, long totalMilliliters, long totalCostMinorUnits, Double averageConsumption) {
+        this.carCount = carCount;
+        this.totalMilliliters = totalMilliliters;
+        this.totalCostMinorUnits = totalCostMinorUnits;
+        this.averageConsumption = averageConsumption;
+    }
+
+    public long getCarCount() {
+        return carCount;
+    }
+
+    public void setCarCount(long carCount) {
+        this.carCount = carCount;
+    }
+
+    @JsonIgnore
+    public long getTotalMilliliters() {
+        return totalMilliliters;
+    }
+
+    @JsonIgnore
+    public long getTotalCostMinorUnits() {
+        return totalCostMinorUnits;
+    }
+
+    public Double getTotalFuel() {
+        return FixedPoint.toLiters(totalMilliliters);
+    }
+
+    public void setTotalFuel(Double totalFuel) {
+        this.totalMilliliters = totalFuel != null ? FixedPoint.toMilliliters(totalFuel) : 0L;
+    }
+
+    public Double getTotalCost() {
+        return FixedPoint.toAmount(totalCostMinorUnits);
+    }
+
+    public void setTotalCost(Double totalCost) {
+        this.totalCostMinorUnits = totalCost != null ? FixedPoint.toMinorUnits(totalCost) : 0L;
+    }
+
+    public Double getAverageConsumption() {
+        return averageConsumption;
+    }
+
+    public void setAverageConsumption(Double averageConsumption) {
+        this.averageConsumption = averageConsumption;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FleetStats that = (FleetStats) o;
+        return carCount == that.carCount &&
+               totalMilliliters == that.totalMilliliters &&
+               totalCostMinorUnits == that.totalCostMinorUnits &&
+               Objects.equals(averageConsumption, that.averageConsumption);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(carCount, totalMilliliters, totalCostMinorUnits, averageConsumption);
+    }
+
+    @Override
+    public String toString() {
+        return "FleetStats{" +
+               "carCount=" + carCount +
+               ", totalFuel=" + getTotalFuel() +
+               ", totalCost=" + getTotalCost() +
+               ", averageConsumption=" + averageConsumption +
+               '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.carmgmt.model;
+
+import java.util.stream.Stream;
+
+/**
+ * Mutable accumulator for fleet-wide aggregates, built from each car's {@link FuelTotals}
+ * by a (possibly parallel) stream reduction.
+ * <p>
+ * Sums are exact {@link FixedPoint} longs, so a parallel reduction gives exactly the same
+ * result as a sequential one.
+ */
+public final class FleetTotals {
+    private long carCount;
+    private long milliliters;
+    private long costMinorUnits;
+    // Fuel and distance of the cars that have a measurable distance
+    private long measuredMilliliters;
+    private long measuredDistance;
+
+    /**
+     * Reduce the given cars; a parallel stream is split across the common fork-join pool
+     */
+    public static FleetTotals of(Stream<Car> cars) {
+        return cars.collect(FleetTotals::new, FleetTotals::add, FleetTotals::combine);
+    }
+
+    /**
+     * Add one car's totals. Reads the car's immutable totals once, so a concurrent
+     * append is either fully included or not at all
+     */
+    public void add(Car car) {
+        FuelTotals totals = car.getFuelTotals();
+        carCount++;
+        if (totals.getEntryCount() == 0) {
+            return;
+        }
+        milliliters += totals.getTotalMilliliters();
+        costMinorUnits += totals.getTotalCostMinorUnits();
+
+        if (totals.getEntryCount() >= 2 && totals.getOdometerCount() >= 2) {
+            int distance = totals.getMaxOdometer() - totals.getMinOdometer();
+            if (distance > 0) {
+                measuredMilliliters += totals.getTotalMilliliters();
+                measuredDistance += distance;
+            }
+        }
+    }
+
+    /**
+     * Merge another partial result into this one
+     */
+    public void combine(FleetTotals other) {
+        carCount += other.carCount;
+        milliliters += other.milliliters;
+        costMinorUnits += other.costMinorUnits;
+        measuredMilliliters += other.measuredMilliliters;
+        measuredDistance += other.measuredDistance;
+    }
+
+    public long getCarCount() {
+        return carCount;
+    }
+
+    public long getTotalMilliliters() {
+        return milliliters;
+    }
+
+    public long getTotalCostMinorUnits() {
+        return costMinorUnits;
+    }
+
+    /**
+     * Fuel used by cars with at least two odometer readings, divided by their
+     * combined distance, in L/100km; 0 if no car has a measurable distance
+     */
+    public double getAverageConsumption() {
+        return FixedPoint.litersPer100Km(measuredMilliliters, measuredDistance);
+    }
+}
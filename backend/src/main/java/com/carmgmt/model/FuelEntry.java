@@ -1,24 +1,32 @@
 package com.carmgmt.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.time.Instant;
 import java.util.Objects;
 
 /**
- * Fuel entry model
+ * Fuel entry model. Entries read from a {@link Car} are materialized from its {@link FuelEntryStore}.
+ * <p>
+ * Volume and price are held in {@link FixedPoint} units (milliliters and minor currency units)
+ * and appear in JSON as decimal liters and price.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"id", "liters", "price", "odometer", "timestamp"})
 public class FuelEntry {
     private Long id;
-    private Double liters;
-    private Double price;
+    private Long milliliters;
+    private Long priceMinorUnits;
     private Integer odometer;
+    private Instant timestamp;
 
     public FuelEntry() {
     }
 
-    public FuelEntry(Double liters, Double price, Integer odometer) {
-        this.liters = liters;
-        this.price = price;
+    public FuelEntry(Long milliliters, Long priceMinorUnits, Integer odometer) {
+        this.milliliters = milliliters;
+        this.priceMinorUnits = priceMinorUnits;
         this.odometer = odometer;
     }
 
@@ -30,20 +38,41 @@ public class FuelEntry {
         this.id = id;
     }
 
+    @JsonIgnore
+    public Long getMilliliters() {
+        return milliliters;
+    }
+
+    public void setMilliliters(Long milliliters) {
+        this.milliliters = milliliters;
+    }
+
+    /**
+     * Price of the fill-up in minor currency units
+     */
+    @JsonIgnore
+    public Long getPriceMinorUnits() {
+        return priceMinorUnits;
+    }
+
+    public void setPriceMinorUnits(Long priceMinorUnits) {
+        this.priceMinorUnits = priceMinorUnits;
+    }
+
     public Double getLiters() {
-        return liters;
+        return milliliters != null ? FixedPoint.toLiters(milliliters) : null;
     }
 
     public void setLiters(Double liters) {
-        this.liters = liters;
+        this.milliliters = liters != null ? FixedPoint.toMilliliters(liters) : null;
     }
 
     public Double getPrice() {
-        return price;
+        return priceMinorUnits != null ? FixedPoint.toAmount(priceMinorUnits) : null;
     }
 
     public void setPrice(Double price) {
-        this.price = price;
+        this.priceMinorUnits = price != null ? FixedPoint.toMinorUnits(price) : null;
     }
 
     public Integer getOdometer() {
@@ -54,29 +83,42 @@ public class FuelEntry {
         this.odometer = odometer;
     }
 
+    /**
+     * Time of the fill-up
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         FuelEntry fuelEntry = (FuelEntry) o;
         return Objects.equals(id, fuelEntry.id) &&
-               Objects.equals(liters, fuelEntry.liters) &&
-               Objects.equals(price, fuelEntry.price) &&
-               Objects.equals(odometer, fuelEntry.odometer);
+               Objects.equals(milliliters, fuelEntry.milliliters) &&
+               Objects.equals(priceMinorUnits, fuelEntry.priceMinorUnits) &&
+               Objects.equals(odometer, fuelEntry.odometer) &&
+               Objects.equals(timestamp, fuelEntry.timestamp);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, liters, price, odometer);
+        return Objects.hash(id, milliliters, priceMinorUnits, odometer, timestamp);
     }
 
     @Override
     public String toString() {
         return "FuelEntry{" +
                "id=" + id +
-               ", liters=" + liters +
-               ", price=" + price +
+               ", liters=" + getLiters() +
+               ", price=" + getPrice() +
                ", odometer=" + odometer +
+               ", timestamp=" + timestamp +
                '}';
     }
 }
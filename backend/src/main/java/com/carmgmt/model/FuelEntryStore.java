@@ -0,0 +1,354 @@
+package com.carmgmt.model;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Growable columnar storage for a car's fuel history.
+ * <p>
+ * Each field is kept in its own primitive array, so an entry costs 52 bytes
+ * (id 8, timestamp 8, milliliters 8, price 8, odometer 4, running volume and cost totals 16)
+ * plus up to 50% growth slack, instead of a {@code FuelEntry} object with five boxed fields
+ * and a list slot.
+ * Retained heap for 1M entries on a 64-bit JVM with compressed oops:
+ * <ul>
+ *   <li>{@code ArrayList<FuelEntry>} with boxed fields: ~150 MB
+ *       (entry 32 + Long 16 + Instant 24 + 2 x Double 16 + Integer 16 + slot 4 bytes, plus list slack)</li>
+ *   <li>{@code FuelEntryStore}: ~52 MB, ~78 MB worst case right after growth</li>
+ * </ul>
+ * The running totals make the volume and cost between two odometer readings two binary
+ * searches and a subtraction while the history is sorted by odometer; see {@link #sumByOdometer}.
+ * Appends must be serialized by the caller (the owning {@link Car}). Reads need no
+ * locking: {@code size} is volatile and written after the row, and columns are only
+ * ever replaced by larger copies, so any reader sees every row below the size it read.
+ * Missing values are stored as {@link #NO_ID}, {@link #NO_TIMESTAMP}, {@link #NO_ODOMETER}
+ * and {@link #NO_AMOUNT}. Timestamps are kept as epoch milliseconds, volumes and prices in
+ * {@link FixedPoint} units.
+ */
+public final class FuelEntryStore {
+    public static final long NO_ID = Long.MIN_VALUE;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    public static final int NO_ODOMETER = Integer.MIN_VALUE;
+    public static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids;
+    private long[] timestamps;
+    private long[] milliliters;
+    private long[] prices;
+    private int[] odometers;
+    // millilitersPrefix[i] and costPrefix[i] sum the first i rows, missing amounts as zero; length is capacity + 1
+    private long[] millilitersPrefix;
+    private long[] costPrefix;
+    // Written before size, and only ever cleared, so a reader that read size sees it at least as set
+    private boolean odometerSorted = true;
+    private volatile int size;
+
+    public FuelEntryStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public FuelEntryStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, INITIAL_CAPACITY);
+        this.ids = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.milliliters = new long[capacity];
+        this.prices = new long[capacity];
+        this.odometers = new int[capacity];
+        this.millilitersPrefix = new long[capacity + 1];
+        this.costPrefix = new long[capacity + 1];
+    }
+
+    /**
+     * Wrap existing columns holding size rows; the arrays are owned by the store afterwards
+     */
+    public static FuelEntryStore of(long[] ids, long[] timestamps, long[] milliliters, long[] prices,
+                                    int[] odometers, int size) {
+        if (ids.length < size || timestamps.length < size || milliliters.length < size
+                || prices.length < size || odometers.length < size) {
+            throw new IllegalArgumentException("Columns are shorter than size " + size);
+        }
+        FuelEntryStore store = new FuelEntryStore(0);
+        store.ids = ids;
+        store.timestamps = timestamps;
+        store.milliliters = milliliters;
+        store.prices = prices;
+        store.odometers = odometers;
+        store.millilitersPrefix = new long[ids.length + 1];
+        store.costPrefix = new long[ids.length + 1];
+        for (int i = 0; i < size; i++) {
+            store.accumulate(i);
+        }
+        for (int i = 0; i < size && store.odometerSorted; i++) {
+            store.odometerSorted = odometers[i] != NO_ODOMETER && (i == 0 || odometers[i - 1] <= odometers[i]);
+        }
+        store.size = size;
+        return store;
+    }
+
+    /**
+     * Append an entry, copying its values into the columns
+     */
+    public void append(FuelEntry entry) {
+        int index = size;
+        ensureCapacity(index + 1);
+        ids[index] = entry.getId() != null ? entry.getId() : NO_ID;
+        timestamps[index] = entry.getTimestamp() != null ? entry.getTimestamp().toEpochMilli() : NO_TIMESTAMP;
+        milliliters[index] = entry.getMilliliters() != null ? entry.getMilliliters() : NO_AMOUNT;
+        prices[index] = entry.getPriceMinorUnits() != null ? entry.getPriceMinorUnits() : NO_AMOUNT;
+        odometers[index] = entry.getOdometer() != null ? entry.getOdometer() : NO_ODOMETER;
+        accumulate(index);
+        if (odometerSorted && (odometers[index] == NO_ODOMETER
+                || (index > 0 && odometers[index - 1] > odometers[index]))) {
+            odometerSorted = false;
+        }
+        size = index + 1;
+    }
+
+    // Extend the running totals over the row at index
+    private void accumulate(int index) {
+        millilitersPrefix[index + 1] = millilitersPrefix[index]
+                + (milliliters[index] == NO_AMOUNT ? 0L : milliliters[index]);
+        costPrefix[index + 1] = costPrefix[index] + (prices[index] == NO_AMOUNT ? 0L : prices[index]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Timestamp in epoch milliseconds, or {@link #NO_TIMESTAMP}
+     */
+    public long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * Volume in milliliters, or {@link #NO_AMOUNT}
+     */
+    public long millilitersAt(int index) {
+        return milliliters[index];
+    }
+
+    /**
+     * Price in minor currency units, or {@link #NO_AMOUNT}
+     */
+    public long priceMinorUnitsAt(int index) {
+        return prices[index];
+    }
+
+    public int odometerAt(int index) {
+        return odometers[index];
+    }
+
+    /**
+     * Position of the first entry with an ID greater than the given one, among the first size entries.
+     * Relies on IDs ascending in append order, as assigned by the repository
+     */
+    public int indexAfterId(long id, int size) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ids[mid] <= id) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * True while every entry has an odometer reading and none is lower than the one before,
+     * which validated appends guarantee; only a replaced history can clear it
+     */
+    public boolean isOdometerSorted() {
+        return odometerSorted;
+    }
+
+    /**
+     * Position of the first entry with an odometer reading greater than the given one,
+     * among the first size entries. Only meaningful while {@link #isOdometerSorted()}
+     */
+    public int indexAfterOdometer(int odometer, int size) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (odometers[mid] <= odometer) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Position of the first entry with an odometer reading of at least the given one,
+     * among the first size entries. Only meaningful while {@link #isOdometerSorted()}
+     */
+    public int indexFromOdometer(int odometer, int size) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (odometers[mid] < odometer) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Totals over the entries whose odometer reading lies between from and to, inclusive.
+     * Takes O(log n) from the running totals while {@link #isOdometerSorted()}, and falls
+     * back to a scan for a replaced, unsorted history. Entries without a reading are left out
+     */
+    public OdometerRange sumByOdometer(int from, int to) {
+        int n = size;
+        OdometerRange range = new OdometerRange();
+        if (from > to || n == 0) {
+            return range;
+        }
+        if (!odometerSorted) {
+            return scanByOdometer(from, to, n);
+        }
+        int lo = indexFromOdometer(from, n);
+        int hi = indexAfterOdometer(to, n);
+        if (lo >= hi) {
+            return range;
+        }
+        range.count = hi - lo;
+        range.milliliters = millilitersPrefix[hi] - millilitersPrefix[lo];
+        range.costMinorUnits = costPrefix[hi] - costPrefix[lo];
+        range.firstOdometer = odometers[lo];
+        range.lastOdometer = odometers[hi - 1];
+        return range;
+    }
+
+    private OdometerRange scanByOdometer(int from, int to, int n) {
+        OdometerRange range = new OdometerRange();
+        for (int i = 0; i < n; i++) {
+            int odometer = odometers[i];
+            if (odometer == NO_ODOMETER || odometer < from || odometer > to) {
+                continue;
+            }
+            if (range.count == 0 || odometer < range.firstOdometer) {
+                range.firstOdometer = odometer;
+            }
+            if (range.count == 0 || odometer > range.lastOdometer) {
+                range.lastOdometer = odometer;
+            }
+            range.count++;
+            range.milliliters += millilitersPrefix[i + 1] - millilitersPrefix[i];
+            range.costMinorUnits += costPrefix[i + 1] - costPrefix[i];
+        }
+        return range;
+    }
+
+    /**
+     * Materialize the entry at the given position
+     */
+    public FuelEntry get(int index) {
+        FuelEntry entry = new FuelEntry(
+                milliliters[index] == NO_AMOUNT ? null : milliliters[index],
+                prices[index] == NO_AMOUNT ? null : prices[index],
+                odometers[index] == NO_ODOMETER ? null : odometers[index]);
+        entry.setId(ids[index] == NO_ID ? null : ids[index]);
+        entry.setTimestamp(timestamps[index] == NO_TIMESTAMP ? null : Instant.ofEpochMilli(timestamps[index]));
+        return entry;
+    }
+
+    /**
+     * Read-only list view of the entries stored so far.
+     * Later appends are not visible through the returned list
+     */
+    public List<FuelEntry> asList() {
+        return new EntryView(size);
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = ids.length;
+        if (required <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(required, capacity + (capacity >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        timestamps = Arrays.copyOf(timestamps, newCapacity);
+        milliliters = Arrays.copyOf(milliliters, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+        odometers = Arrays.copyOf(odometers, newCapacity);
+        millilitersPrefix = Arrays.copyOf(millilitersPrefix, newCapacity + 1);
+        costPrefix = Arrays.copyOf(costPrefix, newCapacity + 1);
+    }
+
+    /**
+     * Totals over an odometer range
+     */
+    public static final class OdometerRange {
+        private int count;
+        private long milliliters;
+        private long costMinorUnits;
+        private int firstOdometer;
+        private int lastOdometer;
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getMilliliters() {
+            return milliliters;
+        }
+
+        public long getCostMinorUnits() {
+            return costMinorUnits;
+        }
+
+        /**
+         * Lowest reading in the range, only meaningful when {@link #getCount()} is positive
+         */
+        public int getFirstOdometer() {
+            return firstOdometer;
+        }
+
+        /**
+         * Highest reading in the range, only meaningful when {@link #getCount()} is positive
+         */
+        public int getLastOdometer() {
+            return lastOdometer;
+        }
+    }
+
+    private final class EntryView extends AbstractList<FuelEntry> implements RandomAccess {
+        private final int viewSize;
+
+        private EntryView(int viewSize) {
+            this.viewSize = viewSize;
+        }
+
+        @Override
+        public FuelEntry get(int index) {
+            if (index < 0 || index >= viewSize) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + viewSize);
+            }
+            return FuelEntryStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return viewSize;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.carmgmt.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Daily and monthly (UTC) buckets of volume, cost and distance for one car's fuel history.
+ * Volume and cost are exact {@link FixedPoint} sums.
+ * <p>
+ * Distance is attributed to the fill-up that ends it: each entry's bucket receives the
+ * kilometres driven since the previous highest odometer reading. Entries without a
+ * timestamp are not bucketed. A date range is answered from whole-month buckets plus
+ * daily buckets for the partial months at either end, so the cost grows with the number
+ * of months in the range rather than the number of entries.
+ * <p>
+ * Not thread-safe; the owning {@link Car} guards it with its monitor.
+ */
+public final class FuelRollups {
+    private final Buckets daily = new Buckets();
+    private final Buckets monthly = new Buckets();
+
+    /**
+     * Build rollups over every timestamped entry in the store
+     */
+    public static FuelRollups of(FuelEntryStore store) {
+        FuelRollups rollups = new FuelRollups();
+        boolean hasOdometer = false;
+        int maxOdometer = 0;
+        for (int i = 0; i < store.size(); i++) {
+            int odometer = store.odometerAt(i);
+            int distance = 0;
+            if (odometer != FuelEntryStore.NO_ODOMETER) {
+                distance = hasOdometer ? Math.max(0, odometer - maxOdometer) : 0;
+                maxOdometer = hasOdometer ? Math.max(maxOdometer, odometer) : odometer;
+                hasOdometer = true;
+            }
+            rollups.add(store.timestampAt(i), store.millilitersAt(i), store.priceMinorUnitsAt(i), distance);
+        }
+        return rollups;
+    }
+
+    /**
+     * Add one fill-up in {@link FixedPoint} units. timestamp is in epoch milliseconds
+     * ({@link FuelEntryStore#NO_TIMESTAMP} is ignored); a volume or price of
+     * {@link FuelEntryStore#NO_AMOUNT} counts as zero
+     */
+    public void add(long timestamp, long milliliters, long priceMinorUnits, int distance) {
+        if (timestamp == FuelEntryStore.NO_TIMESTAMP) {
+            return;
+        }
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(timestamp, 86_400_000L));
+        long volumeValue = milliliters == FuelEntryStore.NO_AMOUNT ? 0L : milliliters;
+        long costValue = priceMinorUnits == FuelEntryStore.NO_AMOUNT ? 0L : priceMinorUnits;
+        daily.add(dayKey(date), volumeValue, costValue, distance);
+        monthly.add(monthKey(date), volumeValue, costValue, distance);
+    }
+
+    /**
+     * Sum the buckets between from and to (inclusive, UTC dates); a null bound is open
+     */
+    public Range sum(LocalDate from, LocalDate to) {
+        Range range = new Range();
+        if (daily.size == 0) {
+            return range;
+        }
+        // Clamp open or out-of-range bounds to the bucketed dates
+        int firstDay = daily.keys[0];
+        int lastDay = daily.keys[daily.size - 1];
+        int fromDay = from == null ? firstDay : (int) Math.max(from.toEpochDay(), firstDay);
+        int toDay = to == null ? lastDay : (int) Math.min(to.toEpochDay(), lastDay);
+
+        int day = fromDay;
+        while (day <= toDay) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            int monthEnd = (int) date.withDayOfMonth(date.lengthOfMonth()).toEpochDay();
+            if (date.getDayOfMonth() == 1 && monthEnd <= toDay) {
+                monthly.sumInto(range, monthKey(date), monthKey(date));
+            } else {
+                daily.sumInto(range, day, Math.min(monthEnd, toDay));
+            }
+            day = monthEnd + 1;
+        }
+        return range;
+    }
+
+    /**
+     * Number of daily buckets
+     */
+    public int getDayCount() {
+        return daily.size;
+    }
+
+    /**
+     * Number of monthly buckets
+     */
+    public int getMonthCount() {
+        return monthly.size;
+    }
+
+    private static int dayKey(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static int monthKey(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Totals over a range of buckets
+     */
+    public static final class Range {
+        private long milliliters;
+        private long costMinorUnits;
+        private long distance;
+
+        public long getMilliliters() {
+            return milliliters;
+        }
+
+        public long getCostMinorUnits() {
+            return costMinorUnits;
+        }
+
+        public long getDistance() {
+            return distance;
+        }
+    }
+
+    /**
+     * Buckets sorted by key in parallel primitive arrays. Fill-ups usually arrive in time
+     * order, so the common case updates or appends the last bucket
+     */
+    private static final class Buckets {
+        // Allocated on first use, so cars without timestamped entries carry no bucket arrays
+        private int[] keys = new int[0];
+        private long[] milliliters = new long[0];
+        private long[] cost = new long[0];
+        private long[] distance = new long[0];
+        private int size;
+
+        void add(int key, long volumeValue, long costValue, int distanceValue) {
+            int index;
+            if (size > 0 && keys[size - 1] == key) {
+                index = size - 1;
+            } else if (size == 0 || keys[size - 1] < key) {
+                index = insert(size, key);
+            } else {
+                index = Arrays.binarySearch(keys, 0, size, key);
+                if (index < 0) {
+                    index = insert(-index - 1, key);
+                }
+            }
+            milliliters[index] += volumeValue;
+            cost[index] += costValue;
+            distance[index] += distanceValue;
+        }
+
+        void sumInto(Range range, int fromKey, int toKey) {
+            int index = Arrays.binarySearch(keys, 0, size, fromKey);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            for (; index < size && keys[index] <= toKey; index++) {
+                range.milliliters += milliliters[index];
+                range.costMinorUnits += cost[index];
+                range.distance += distance[index];
+            }
+        }
+
+        private int insert(int index, int key) {
+            if (size == keys.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                keys = Arrays.copyOf(keys, capacity);
+                milliliters = Arrays.copyOf(milliliters, capacity);
+                cost = Arrays.copyOf(cost, capacity);
+                distance = Arrays.copyOf(distance, capacity);
+            }
+            int moved = size - index;
+            if (moved > 0) {
+                System.arraycopy(keys, index, keys, index + 1, moved);
+                System.arraycopy(milliliters, index, milliliters, index + 1, moved);
+                System.arraycopy(cost, index, cost, index + 1, moved);
+                System.arraycopy(distance, index, distance, index + 1, moved);
+            }
+            keys[index] = key;
+            milliliters[index] = 0;
+            cost[index] = 0;
+            distance[index] = 0;
+            size++;
+            return index;
+        }
+    }
+}
@@ -1,38 +1,55 @@
 package com.carmgmt.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.util.Objects;
 
 /**
- * Fuel statistics DTO
+ * Fuel statistics DTO.
+ * <p>
+ * Totals are exact {@link FixedPoint} values (milliliters and minor currency units); they are
+ * rounded to decimal liters and currency only when serialized as totalFuel and totalCost.
  */
+@JsonPropertyOrder({"totalFuel", "totalCost", "averageConsumption"})
 public class FuelStats {
-    private Double totalFuel;
-    private Double totalCost;
+    private long totalMilliliters;
+    private long totalCostMinorUnits;
     private Double averageConsumption;
 
     public FuelStats() {
     }
 
-    public FuelStats(Double totalFuel, Double totalCost, Double averageConsumption) {
-        this.totalFuel = totalFuel;
-        this.totalCost = totalCost;
+    public FuelStats(long totalMilliliters, long totalCostMinorUnits, Double averageConsumption) {
+        this.totalMilliliters = totalMilliliters;
+        this.totalCostMinorUnits = totalCostMinorUnits;
         this.averageConsumption = averageConsumption;
     }
 
+    @JsonIgnore
+    public long getTotalMilliliters() {
+        return totalMilliliters;
+    }
+
+    @JsonIgnore
+    public long getTotalCostMinorUnits() {
+        return totalCostMinorUnits;
+    }
+
     public Double getTotalFuel() {
-        return totalFuel;
+        return FixedPoint.toLiters(totalMilliliters);
     }
 
     public void setTotalFuel(Double totalFuel) {
-        this.totalFuel = totalFuel;
+        this.totalMilliliters = totalFuel != null ? FixedPoint.toMilliliters(totalFuel) : 0L;
     }
 
     public Double getTotalCost() {
-        return totalCost;
+        return FixedPoint.toAmount(totalCostMinorUnits);
     }
 
     public void setTotalCost(Double totalCost) {
-        this.totalCost = totalCost;
+        this.totalCostMinorUnits = totalCost != null ? FixedPoint.toMinorUnits(totalCost) : 0L;
     }
 
     public Double getAverageConsumption() {
@@ -48,23 +65,22 @@ public class FuelStats {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         FuelStats fuelStats = (FuelStats) o;
-        return Objects.equals(totalFuel, fuelStats.totalFuel) &&
-               Objects.equals(totalCost, fuelStats.totalCost) &&
+        return totalMilliliters == fuelStats.totalMilliliters &&
+               totalCostMinorUnits == fuelStats.totalCostMinorUnits &&
                Objects.equals(averageConsumption, fuelStats.averageConsumption);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(totalFuel, totalCost, averageConsumption);
+        return Objects.hash(totalMilliliters, totalCostMinorUnits, averageConsumption);
     }
 
     @Override
     public String toString() {
         return "FuelStats{" +
-               "totalFuel=" + totalFuel +
-               ", totalCost=" + totalCost +
+               "totalFuel=" + getTotalFuel() +
+               ", totalCost=" + getTotalCost() +
                ", averageConsumption=" + averageConsumption +
                '}';
     }
 }
-
@@ -0,0 +1,130 @@
+package com.carmgmt.model;
+
+/**
+ * Immutable running aggregates over a car's fuel entries.
+ * <p>
+ * Volume and cost are summed as {@link FixedPoint} longs, so the totals are exact and
+ * independent of the order entries were added in.
+ */
+public final class FuelTotals {
+    public static final FuelTotals EMPTY = new FuelTotals(0, 0, 0L, 0L, 0, 0);
+
+    private final int entryCount;
+    private final int odometerCount;
+    private final long totalMilliliters;
+    private final long totalCostMinorUnits;
+    private final int minOdometer;
+    private final int maxOdometer;
+
+    private FuelTotals(int entryCount, int odometerCount, long totalMilliliters, long totalCostMinorUnits,
+                       int minOdometer, int maxOdometer) {
+        this.entryCount = entryCount;
+        this.odometerCount = odometerCount;
+        this.totalMilliliters = totalMilliliters;
+        this.totalCostMinorUnits = totalCostMinorUnits;
+        this.minOdometer = minOdometer;
+        this.maxOdometer = maxOdometer;
+    }
+
+    /**
+     * Compute totals over every entry in the store in a single pass
+     */
+    public static FuelTotals of(FuelEntryStore store) {
+        int size = store.size();
+        int odometerCount = 0;
+        int minOdometer = 0;
+        int maxOdometer = 0;
+        long milliliters = 0;
+        long costMinorUnits = 0;
+
+        for (int i = 0; i < size; i++) {
+            long volume = store.millilitersAt(i);
+            if (volume != FuelEntryStore.NO_AMOUNT) {
+                milliliters += volume;
+            }
+            long price = store.priceMinorUnitsAt(i);
+            if (price != FuelEntryStore.NO_AMOUNT) {
+                costMinorUnits += price;
+            }
+            int odometer = store.odometerAt(i);
+            if (odometer != FuelEntryStore.NO_ODOMETER) {
+                minOdometer = odometerCount == 0 ? odometer : Math.min(minOdometer, odometer);
+                maxOdometer = odometerCount == 0 ? odometer : Math.max(maxOdometer, odometer);
+                odometerCount++;
+            }
+        }
+
+        return new FuelTotals(size, odometerCount, milliliters, costMinorUnits, minOdometer, maxOdometer);
+    }
+
+    /**
+     * Return new totals that include the given entry
+     */
+    public FuelTotals plus(FuelEntry entry) {
+        long newMilliliters = totalMilliliters;
+        if (entry.getMilliliters() != null) {
+            newMilliliters += entry.getMilliliters();
+        }
+        long newCostMinorUnits = totalCostMinorUnits;
+        if (entry.getPriceMinorUnits() != null) {
+            newCostMinorUnits += entry.getPriceMinorUnits();
+        }
+
+        int newOdometerCount = odometerCount;
+        int newMinOdometer = minOdometer;
+        int newMaxOdometer = maxOdometer;
+        if (entry.getOdometer() != null) {
+            int odometer = entry.getOdometer();
+            newMinOdometer = odometerCount == 0 ? odometer : Math.min(minOdometer, odometer);
+            newMaxOdometer = odometerCount == 0 ? odometer : Math.max(maxOdometer, odometer);
+            newOdometerCount++;
+        }
+
+        return new FuelTotals(entryCount + 1, newOdometerCount, newMilliliters, newCostMinorUnits,
+                newMinOdometer, newMaxOdometer);
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Number of entries that carry an odometer reading
+     */
+    public int getOdometerCount() {
+        return odometerCount;
+    }
+
+    public long getTotalMilliliters() {
+        return totalMilliliters;
+    }
+
+    public long getTotalCostMinorUnits() {
+        return totalCostMinorUnits;
+    }
+
+    /**
+     * Lowest odometer reading, only meaningful when {@link #getOdometerCount()} is positive
+     */
+    public int getMinOdometer() {
+        return minOdometer;
+    }
+
+    /**
+     * Highest odometer reading, only meaningful when {@link #getOdometerCount()} is positive
+     */
+    public int getMaxOdometer() {
+        return maxOdometer;
+    }
+
+    @Override
+    public String toString() {
+        return "FuelTotals{" +
+               "entryCount=" + entryCount +
+               ", totalMilliliters=" + totalMilliliters +
+               ", totalCostMinorUnits=" + totalCostMinorUnits +
+               ", minOdometer=" + minOdometer +
+               ", maxOdometer=" + maxOdometer +
+               '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.carmgmt.repository;
+
+/**
+ * Normalized keys for duplicate detection, shared by the repository implementations
+ */
+final class CarKeys {
+
+    private CarKeys() {
+    }
+
+    /**
+     * Build the normalized index key for brand, model, and year.
+     * Case folding matches String.equalsIgnoreCase; returns null if any part is missing
+     */
+    static String brandModelYear(String brand, String model, Integer year) {
+        if (brand == null || model == null || year == null) {
+            return null;
+        }
+        return foldCase(brand) + '\0' + foldCase(model) + '\0' + year;
+    }
+
+    private static String foldCase(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            folded.append(Character.toLowerCase(Character.toUpperCase(value.charAt(i))));
+        }
+        return folded.toString();
+    }
+}
@@ -1,117 +1,131 @@
 package com.carmgmt.repository;
 
 import com.carmgmt.exception.CarNotFoundException;
+import com.carmgmt.exception.DuplicateCarException;
 import com.carmgmt.model.Car;
-import org.springframework.stereotype.Repository;
+import com.carmgmt.model.FuelEntry;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
- * In-memory repository for cars
+ * Storage for cars and their fuel entries.
+ * <p>
+ * The implementation is chosen with {@code carmgmt.storage.backend} (see {@link StorageBackend}).
+ * Every implementation must be safe for concurrent use and:
+ * <ul>
+ *   <li>assign car IDs and fuel entry IDs from two increasing sequences, never reusing one;</li>
+ *   <li>hand out the stored {@link Car} instances themselves, and apply every mutation of a car
+ *       while holding its monitor, so callers can synchronize on a car to make a check and a
+ *       mutation atomic;</li>
+ *   <li>match brand, model and year case-insensitively (as {@link String#equalsIgnoreCase})
+ *       wherever duplicates are detected.</li>
+ * </ul>
+ * {@code CarRepositoryContractTest} in the backend test-jar checks these rules for any implementation.
  */
-@Repository
-public class CarRepository {
-    private final Map<Long, Car> cars = new ConcurrentHashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+public interface CarRepository {
 
     /**
-     * Save a car
+     * Load persisted state, if any; called once before the repository is used
      */
-    public Car save(Car car) {
-        Long id = idGenerator.getAndIncrement();
-        car.setId(id);
-        cars.put(id, car);
-        return car;
+    default void recover() {
     }
 
     /**
-     * Find car by ID
+     * Assign the next ID to the car and store it
      */
-    public Car findById(Long id) {
-        return cars.get(id);
-    }
+    Car save(Car car);
 
     /**
-     * Get all cars
+     * Save a car unless one with the same brand, model, and year (case-insensitive) already exists.
+     * The check and the insert happen atomically.
+     * Returns true if the car was saved, false if a duplicate was found
      */
-    public List<Car> findAll() {
-        return new ArrayList<>(cars.values());
-    }
+    boolean saveIfAbsent(Car car);
+
+    /**
+     * Find car by ID, or null
+     */
+    Car findById(Long id);
+
+    /**
+     * Get all cars, ordered by ID
+     */
+    List<Car> findAll();
+
+    /**
+     * Get up to limit cars with an ID greater than afterId (all IDs if null), ordered by ID
+     */
+    List<Car> findAfter(Long afterId, int limit);
+
+    /**
+     * Iterate cars with an ID greater than afterId (all IDs if null) in ID order.
+     * Must not block writers for the whole iteration; it may or may not reflect
+     * changes made while it is in progress
+     */
+    Iterable<Car> iterateAfter(Long afterId);
+
+    /**
+     * Stream all cars in any order; may be made parallel
+     */
+    Stream<Car> streamAll();
+
+    /**
+     * Number of stored cars
+     */
+    int count();
+
+    /**
+     * Number of fuel entries across all stored cars; meant for monitoring
+     */
+    long countFuelEntries();
+
+    /**
+     * Highest fuel entry ID assigned so far, or 0 if none. IDs must be assigned while holding the
+     * car's monitor, so every entry up to this ID is visible to anyone who takes its car's
+     * monitor afterwards
+     */
+    long lastFuelEntryId();
 
     /**
      * Check if car exists
      */
-    public boolean existsById(Long id) {
-        return cars.containsKey(id);
-    }
+    boolean existsById(Long id);
 
     /**
-     * Check if a car with the same brand, model, and year already exists
-     */
-    public boolean existsByBrandModelYear(String brand, String model, Integer year) {
-        // Validate input parameters are non-null
-        if (brand == null || model == null || year == null) {
-            return false;
-        }
-        
-        return cars.values().stream()
-                .anyMatch(car -> car.getBrand() != null 
-                        && car.getModel() != null 
-                        && brand.equalsIgnoreCase(car.getBrand()) 
-                        && model.equalsIgnoreCase(car.getModel()) 
-                        && Objects.equals(year, car.getYear()));
-    }
+     * Check if a car with the same brand, model, and year already exists; false if any is null
+     */
+    boolean existsByBrandModelYear(String brand, String model, Integer year);
 
     /**
      * Find a car by brand, model, and year (case-insensitive)
-     * Returns Optional.empty() if no matching car is found
-     */
-    public Optional<Car> findByBrandModelYear(String brand, String model, Integer year) {
-        // Validate input parameters are non-null
-        if (brand == null || model == null || year == null) {
-            return Optional.empty();
-        }
-        
-        return cars.values().stream()
-                .filter(car -> car.getBrand() != null 
-                        && car.getModel() != null 
-                        && brand.equalsIgnoreCase(car.getBrand()) 
-                        && model.equalsIgnoreCase(car.getModel()) 
-                        && Objects.equals(year, car.getYear()))
-                .findFirst();
-    }
+     * Returns Optional.empty() if no matching car is found or any part is null
+     */
+    Optional<Car> findByBrandModelYear(String brand, String model, Integer year);
 
     /**
-     * Update an existing car
-     */
-    public Car update(Car car) {
-        Objects.requireNonNull(car, "Car cannot be null");
-        Long carId = Objects.requireNonNull(car.getId(), "Car ID cannot be null");
-        
-        Car existing = cars.get(carId);
-        if (existing == null) {
-            throw new CarNotFoundException("Car with ID " + carId + " not found");
-        }
-        
-        // Update the existing car's properties to preserve internal state (e.g., fuelEntries)
-        existing.setBrand(car.getBrand());
-        existing.setModel(car.getModel());
-        existing.setYear(car.getYear());
-        
-        return existing;
-    }
+     * Copy brand, model and year onto the stored car with the same ID and return the stored car.
+     * Throws {@link CarNotFoundException} if there is no such car and
+     * {@link DuplicateCarException} if another car already has the new brand, model and year
+     */
+    Car update(Car car);
 
     /**
-     * Delete a car by ID
+     * Delete a car by ID; returns false if there was no such car
      */
-    public boolean deleteById(Long id) {
-        return cars.remove(id) != null;
-    }
-}
+    boolean deleteById(Long id);
+
+    /**
+     * Assign the next fuel entry ID to the entry and append it to the car.
+     * Throws {@link CarNotFoundException} if the car is no longer stored
+     */
+    FuelEntry addFuelEntry(Car car, FuelEntry fuelEntry);
 
+    /**
+     * Assign increasing fuel entry IDs to the entries and append them to the car
+     * in one critical section.
+     * Throws {@link CarNotFoundException} if the car is no longer stored
+     */
+    List<FuelEntry> addFuelEntries(Car car, List<FuelEntry> fuelEntries);
+}
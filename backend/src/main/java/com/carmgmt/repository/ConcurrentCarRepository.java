@@ -0,0 +1,382 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.exception.CarNotFoundException;
+import com.carmgmt.exception.DuplicateCarException;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory repository for cars on concurrent maps, the default backend.
+ * Readers never block and writers only contend on the same car.
+ * Mutations are recorded in a {@link MutationLog} while holding the car's monitor,
+ * so the log order matches the order in which they were applied to each car; the wait for
+ * durability comes after the monitor is released
+ */
+public class ConcurrentCarRepository implements CarRepository {
+    private final Map<Long, Car> cars = new ConcurrentHashMap<>();
+    // Same cars ordered by ID, for cursor pagination and streaming
+    private final ConcurrentNavigableMap<Long, Car> carsById = new ConcurrentSkipListMap<>();
+    // Normalized brand/model/year key -> car ID
+    private final Map<String, Long> brandModelYearIndex = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final AtomicLong fuelEntryIdGenerator = new AtomicLong(1);
+    private final MutationLog mutationLog;
+
+    public ConcurrentCarRepository() {
+        this(MutationLog.NONE);
+    }
+
+    public ConcurrentCarRepository(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+    /**
+     * Replay the mutation log, if any, before the repository is used
+     */
+    @Override
+    public void recover() {
+        mutationLog.open(new RecoveryState());
+
+        // Replay may pass through transient key collisions, so rebuild the index from the final state
+        brandModelYearIndex.clear();
+        for (Car car : cars.values()) {
+            String key = CarKeys.brandModelYear(car.getBrand(), car.getModel(), car.getYear());
+            if (key != null) {
+                brandModelYearIndex.putIfAbsent(key, car.getId());
+            }
+        }
+    }
+
+    @Override
+    public Car save(Car car) {
+        long position;
+        synchronized (car) {
+            Long id = idGenerator.getAndIncrement();
+            car.setId(id);
+            cars.put(id, car);
+            carsById.put(id, car);
+            String key = CarKeys.brandModelYear(car.getBrand(), car.getModel(), car.getYear());
+            if (key != null) {
+                brandModelYearIndex.putIfAbsent(key, id);
+            }
+            position = mutationLog.logSave(car);
+        }
+        mutationLog.awaitDurable(position);
+        return car;
+    }
+
+    @Override
+    public boolean saveIfAbsent(Car car) {
+        String key = CarKeys.brandModelYear(car.getBrand(), car.getModel(), car.getYear());
+        if (key == null) {
+            save(car);
+            return true;
+        }
+
+        long position;
+        synchronized (car) {
+            Long id = brandModelYearIndex.computeIfAbsent(key, k -> {
+                Long newId = idGenerator.getAndIncrement();
+                car.setId(newId);
+                cars.put(newId, car);
+                carsById.put(newId, car);
+                return newId;
+            });
+            if (!id.equals(car.getId())) {
+                return false;
+            }
+            position = mutationLog.logSave(car);
+        }
+        mutationLog.awaitDurable(position);
+        return true;
+    }
+
+    @Override
+    public Car findById(Long id) {
+        return cars.get(id);
+    }
+
+    @Override
+    public List<Car> findAll() {
+        return new ArrayList<>(carsById.values());
+    }
+
+    @Override
+    public List<Car> findAfter(Long afterId, int limit) {
+        List<Car> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Car car : iterateAfter(afterId)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(car);
+        }
+        return page;
+    }
+
+    /**
+     * Iterate the skip list without copying. The iteration is weakly consistent: it never
+     * blocks writers and may or may not reflect changes made while it is in progress
+     */
+    @Override
+    public Iterable<Car> iterateAfter(Long afterId) {
+        Map<Long, Car> tail = afterId == null ? carsById : carsById.tailMap(afterId, false);
+        return tail.values();
+    }
+
+    /**
+     * Stream all cars without copying them. The stream splits well when made parallel
+     * and, like {@link #iterateAfter}, never blocks writers
+     */
+    @Override
+    public Stream<Car> streamAll() {
+        return cars.values().stream();
+    }
+
+    @Override
+    public int count() {
+        return cars.size();
+    }
+
+    @Override
+    public long countFuelEntries() {
+        long total = 0;
+        for (Car car : cars.values()) {
+            total += car.getFuelEntryStore().size();
+        }
+        return total;
+    }
+
+    @Override
+    public long lastFuelEntryId() {
+        return fuelEntryIdGenerator.get() - 1;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return cars.containsKey(id);
+    }
+
+    @Override
+    public boolean existsByBrandModelYear(String brand, String model, Integer year) {
+        // Validate input parameters are non-null
+        if (brand == null || model == null || year == null) {
+            return false;
+        }
+        
+        return brandModelYearIndex.containsKey(CarKeys.brandModelYear(brand, model, year));
+    }
+
+    @Override
+    public Optional<Car> findByBrandModelYear(String brand, String model, Integer year) {
+        // Validate input parameters are non-null
+        if (brand == null || model == null || year == null) {
+            return Optional.empty();
+        }
+        
+        Long id = brandModelYearIndex.get(CarKeys.brandModelYear(brand, model, year));
+        return id == null ? Optional.empty() : Optional.ofNullable(cars.get(id));
+    }
+
+    @Override
+    public Car update(Car car) {
+        Objects.requireNonNull(car, "Car cannot be null");
+        Long carId = Objects.requireNonNull(car.getId(), "Car ID cannot be null");
+        
+        Car existing = cars.get(carId);
+        if (existing == null) {
+            throw new CarNotFoundException("Car with ID " + carId + " not found");
+        }
+        
+        long position;
+        synchronized (existing) {
+            if (cars.get(carId) != existing) {
+                throw new CarNotFoundException("Car with ID " + carId + " not found");
+            }
+            applyUpdate(existing, car);
+            position = mutationLog.logUpdate(existing);
+        }
+        mutationLog.awaitDurable(position);
+
+        return existing;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        Car existing = cars.get(id);
+        if (existing == null) {
+            return false;
+        }
+        long position;
+        synchronized (existing) {
+            if (!cars.remove(id, existing)) {
+                return false;
+            }
+            carsById.remove(id, existing);
+            removeFromIndex(existing);
+            position = mutationLog.logDelete(id);
+        }
+        mutationLog.awaitDurable(position);
+        return true;
+    }
+
+    /**
+     * Logs the entry before applying it, so a failed append leaves nothing visible. Snapshots
+     * read each car under its monitor, so they see a logged entry either applied or in a
+     * segment they do not cover
+     */
+    @Override
+    public FuelEntry addFuelEntry(Car car, FuelEntry fuelEntry) {
+        long position;
+        synchronized (car) {
+            if (cars.get(car.getId()) != car) {
+                throw new CarNotFoundException("Car with ID " + car.getId() + " not found");
+            }
+            fuelEntry.setId(fuelEntryIdGenerator.getAndIncrement());
+            position = mutationLog.logFuelEntry(car.getId(), fuelEntry);
+            car.addFuelEntry(fuelEntry);
+        }
+        mutationLog.awaitDurable(position);
+        return fuelEntry;
+    }
+
+    @Override
+    public List<FuelEntry> addFuelEntries(Car car, List<FuelEntry> fuelEntries) {
+        long position;
+        synchronized (car) {
+            if (cars.get(car.getId()) != car) {
+                throw new CarNotFoundException("Car with ID " + car.getId() + " not found");
+            }
+            for (FuelEntry fuelEntry : fuelEntries) {
+                fuelEntry.setId(fuelEntryIdGenerator.getAndIncrement());
+            }
+            position = mutationLog.logFuelEntries(car.getId(), fuelEntries);
+            car.addFuelEntries(fuelEntries);
+        }
+        mutationLog.awaitDurable(position);
+        return fuelEntries;
+    }
+
+    /**
+     * Copy brand/model/year onto the stored car, moving its index entry.
+     * Called with the car's monitor held
+     */
+    private void applyUpdate(Car existing, Car changes) {
+        Long carId = existing.getId();
+        String oldKey = CarKeys.brandModelYear(existing.getBrand(), existing.getModel(), existing.getYear());
+        String newKey = CarKeys.brandModelYear(changes.getBrand(), changes.getModel(), changes.getYear());
+        if (newKey != null && !newKey.equals(oldKey)) {
+            Long holder = brandModelYearIndex.putIfAbsent(newKey, carId);
+            if (holder != null && !holder.equals(carId)) {
+                throw new DuplicateCarException(
+                    String.format("Car with brand '%s', model '%s', and year %d already exists",
+                        changes.getBrand(), changes.getModel(), changes.getYear())
+                );
+            }
+        }
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            brandModelYearIndex.remove(oldKey, carId);
+        }
+
+        // Update the existing car's properties to preserve internal state (e.g., fuelEntries)
+        existing.setBrand(changes.getBrand());
+        existing.setModel(changes.getModel());
+        existing.setYear(changes.getYear());
+    }
+
+    private void removeFromIndex(Car car) {
+        String key = CarKeys.brandModelYear(car.getBrand(), car.getModel(), car.getYear());
+        if (key != null) {
+            brandModelYearIndex.remove(key, car.getId());
+        }
+    }
+
+    /**
+     * Applies replayed mutations without logging them again.
+     * The brand/model/year index is rebuilt once replay finishes
+     */
+    private class RecoveryState implements MutationLog.State {
+        @Override
+        public void restoreCounters(long nextCarId, long nextFuelEntryId) {
+            idGenerator.accumulateAndGet(nextCarId, Math::max);
+            fuelEntryIdGenerator.accumulateAndGet(nextFuelEntryId, Math::max);
+        }
+
+        @Override
+        public void restoreSave(Car car) {
+            idGenerator.accumulateAndGet(car.getId() + 1, Math::max);
+            Car existing = cars.get(car.getId());
+            if (existing == null) {
+                cars.put(car.getId(), car);
+                carsById.put(car.getId(), car);
+            } else {
+                overwrite(existing, car);
+            }
+        }
+
+        @Override
+        public void restoreUpdate(Car car) {
+            Car existing = cars.get(car.getId());
+            if (existing != null) {
+                overwrite(existing, car);
+            }
+        }
+
+        private void overwrite(Car existing, Car car) {
+            existing.setBrand(car.getBrand());
+            existing.setModel(car.getModel());
+            existing.setYear(car.getYear());
+        }
+
+        @Override
+        public void restoreDelete(Long carId) {
+            cars.remove(carId);
+            carsById.remove(carId);
+        }
+
+        @Override
+        public void restoreFuelEntry(Long carId, FuelEntry fuelEntry) {
+            if (fuelEntry.getId() != null) {
+                fuelEntryIdGenerator.accumulateAndGet(fuelEntry.getId() + 1, Math::max);
+            }
+            Car car = cars.get(carId);
+            if (car == null) {
+                return;
+            }
+            List<FuelEntry> entries = car.getFuelEntries();
+            if (!entries.isEmpty() && fuelEntry.getId() != null) {
+                Long lastId = entries.get(entries.size() - 1).getId();
+                if (lastId != null && lastId >= fuelEntry.getId()) {
+                    return;
+                }
+            }
+            car.addFuelEntry(fuelEntry);
+        }
+
+        @Override
+        public Collection<Car> liveCars() {
+            return cars.values();
+        }
+
+        @Override
+        public long nextCarId() {
+            return idGenerator.get();
+        }
+
+        @Override
+        public long nextFuelEntryId() {
+            return fuelEntryIdGenerator.get();
+        }
+    }
+}
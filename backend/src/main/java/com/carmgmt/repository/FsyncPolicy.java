@@ -0,0 +1,25 @@
+package com.carmgmt.repository;
+
+/**
+ * When the write-ahead log forces appended records to disk
+ */
+public enum FsyncPolicy {
+    /**
+     * Write and fsync before each mutation returns
+     */
+    ALWAYS,
+
+    /**
+     * Group commit: buffer records and write + fsync them together once per flush interval,
+     * holding each mutation until the fsync that covers it. Nothing acknowledged is lost;
+     * a mutation waits up to one flush interval longer to return
+     */
+    GROUP,
+
+    /**
+     * Buffer records and hand them to the OS once per flush interval without fsync.
+     * Mutations return at once; a crash can lose the last interval of them, and an OS
+     * crash whatever the OS had not yet written back
+     */
+    OS
+}
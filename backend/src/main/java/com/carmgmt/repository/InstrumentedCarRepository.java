@@ -0,0 +1,152 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.metrics.OperationTimer;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Times the writes and listings of any {@link CarRepository} and registers the car and
+ * fuel entry gauges, so every backend reports the same repository metrics
+ */
+public class InstrumentedCarRepository implements CarRepository {
+    private final CarRepository delegate;
+    private final OperationTimer createTimer;
+    private final OperationTimer listTimer;
+    private final OperationTimer addFuelTimer;
+    private final OperationTimer addFuelBatchTimer;
+
+    public InstrumentedCarRepository(CarRepository delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.createTimer = metrics.sampledTimer(MetricsRegistry.REPOSITORY, "create");
+        this.listTimer = metrics.sampledTimer(MetricsRegistry.REPOSITORY, "list");
+        this.addFuelTimer = metrics.sampledTimer(MetricsRegistry.REPOSITORY, "add-fuel");
+        this.addFuelBatchTimer = metrics.sampledTimer(MetricsRegistry.REPOSITORY, "add-fuel-batch");
+        metrics.gauge("carmgmt_cars", "Cars currently stored", delegate::count);
+        metrics.gauge("carmgmt_fuel_entries", "Fuel entries across all stored cars", delegate::countFuelEntries);
+    }
+
+    @Override
+    public void recover() {
+        delegate.recover();
+    }
+
+    @Override
+    public Car save(Car car) {
+        long start = createTimer.start();
+        try {
+            return delegate.save(car);
+        } finally {
+            createTimer.stop(start);
+        }
+    }
+
+    @Override
+    public boolean saveIfAbsent(Car car) {
+        long start = createTimer.start();
+        try {
+            return delegate.saveIfAbsent(car);
+        } finally {
+            createTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Car findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Car> findAll() {
+        long start = listTimer.start();
+        try {
+            return delegate.findAll();
+        } finally {
+            listTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Car> findAfter(Long afterId, int limit) {
+        long start = listTimer.start();
+        try {
+            return delegate.findAfter(afterId, limit);
+        } finally {
+            listTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Iterable<Car> iterateAfter(Long afterId) {
+        return delegate.iterateAfter(afterId);
+    }
+
+    @Override
+    public Stream<Car> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countFuelEntries() {
+        return delegate.countFuelEntries();
+    }
+
+    @Override
+    public long lastFuelEntryId() {
+        return delegate.lastFuelEntryId();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByBrandModelYear(String brand, String model, Integer year) {
+        return delegate.existsByBrandModelYear(brand, model, year);
+    }
+
+    @Override
+    public Optional<Car> findByBrandModelYear(String brand, String model, Integer year) {
+        return delegate.findByBrandModelYear(brand, model, year);
+    }
+
+    @Override
+    public Car update(Car car) {
+        return delegate.update(car);
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return delegate.deleteById(id);
+    }
+
+    @Override
+    public FuelEntry addFuelEntry(Car car, FuelEntry fuelEntry) {
+        long start = addFuelTimer.start();
+        try {
+            return delegate.addFuelEntry(car, fuelEntry);
+        } finally {
+            addFuelTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<FuelEntry> addFuelEntries(Car car, List<FuelEntry> fuelEntries) {
+        long start = addFuelBatchTimer.start();
+        try {
+            return delegate.addFuelEntries(car, fuelEntries);
+        } finally {
+            addFuelBatchTimer.stop(start);
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.exception.CarNotFoundException;
+import com.carmgmt.exception.DuplicateCarException;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.model.FuelEntryStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory repository for cars on plain maps behind one read-write lock.
+ * <p>
+ * A simple reference backend to compare others against: every write, including fuel
+ * appends, is serialized on the write lock, and iteration works on a copy taken under the
+ * read lock. A car's monitor is always taken before the lock, never the other way round.
+ * Mutations are recorded in a {@link MutationLog} while holding both, and their durability is
+ * awaited after releasing both, so one writer's fsync wait does not stall every other caller
+ */
+public class LockedCarRepository implements CarRepository {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+    // All fields below are guarded by lock
+    private final NavigableMap<Long, Car> cars = new TreeMap<>();
+    // Normalized brand/model/year key -> car ID
+    private final Map<String, Long> brandModelYearIndex = new HashMap<>();
+    private long nextCarId = 1;
+    private long nextFuelEntryId = 1;
+    private final MutationLog mutationLog;
+
+    public LockedCarRepository() {
+        this(MutationLog.NONE);
+    }
+
+    public LockedCarRepository(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+    /**
+     * Replay the mutation log, if any, before the repository is used
+     */
+    @Override
+    public void recover() {
+        mutationLog.open(new RecoveryState());
+
+        // Replay may pass through transient key collisions, so rebuild the index from the final state
+        writeLock.lock();
+        try {
+            brandModelYearIndex.clear();
+            for (Car car : cars.values()) {
+                String key = CarKeys.brandModelYear(car.getBrand(), car.getModel(), car.getYear());
+                if (key != null) {
+                    brandModelYearIndex.putIfAbsent(key, car.getId());
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Car save(Car car) {
+        long position;
+        synchronized (car) {
+            writeLock.lock();
+            try {
+                position = insert(car, CarKeys.brandModelYear(car.getBrand(), car.getModel(), car.getYear()));
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        mutationLog.awaitDurable(position);
+        return car;
+    }
+
+    @Override
+    public boolean saveIfAbsent(Car car) {
+        String key = CarKeys.brandModelYear(car.getBrand(), car.getModel(), car.getYear());
+        long position;
+        synchronized (car) {
+            writeLock.lock();
+            try {
+                if (key != null && brandModelYearIndex.containsKey(key)) {
+                    return false;
+                }
+                position = insert(car, key);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        mutationLog.awaitDurable(position);
+        return true;
+    }
+
+    /**
+     * Assign the next ID and store the car; called with its monitor and the write lock held.
+     * Returns the log position to await once both are released
+     */
+    private long insert(Car car, String key) {
+        long id = nextCarId++;
+        car.setId(id);
+        cars.put(id, car);
+        if (key != null) {
+            brandModelYearIndex.putIfAbsent(key, id);
+        }
+        return mutationLog.logSave(car);
+    }
+
+    @Override
+    public Car findById(Long id) {
+        readLock.lock();
+        try {
+            return cars.get(id);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Car> findAll() {
+        readLock.lock();
+        try {
+            return new ArrayList<>(cars.values());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Car> findAfter(Long afterId, int limit) {
+        readLock.lock();
+        try {
+            List<Car> page = new ArrayList<>(Math.min(limit, 1024));
+            for (Car car : tail(afterId).values()) {
+                if (page.size() >= limit) {
+                    break;
+                }
+                page.add(car);
+            }
+            return page;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Iterate a copy of the cars taken under the read lock, so writers are only blocked while copying
+     */
+    @Override
+    public Iterable<Car> iterateAfter(Long afterId) {
+        readLock.lock();
+        try {
+            return new ArrayList<>(tail(afterId).values());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private NavigableMap<Long, Car> tail(Long afterId) {
+        return afterId == null ? cars : cars.tailMap(afterId, false);
+    }
+
+    @Override
+    public Stream<Car> streamAll() {
+        return findAll().stream();
+    }
+
+    @Override
+    public int count() {
+        readLock.lock();
+        try {
+            return cars.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long countFuelEntries() {
+        readLock.lock();
+        try {
+            long total = 0;
+            for (Car car : cars.values()) {
+                total += car.getFuelEntryStore().size();
+            }
+            return total;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long lastFuelEntryId() {
+        readLock.lock();
+        try {
+            return nextFuelEntryId - 1;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        readLock.lock();
+        try {
+            return cars.containsKey(id);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByBrandModelYear(String brand, String model, Integer year) {
+        String key = CarKeys.brandModelYear(brand, model, year);
+        if (key == null) {
+            return false;
+        }
+        readLock.lock();
+        try {
+            return brandModelYearIndex.containsKey(key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Car> findByBrandModelYear(String brand, String model, Integer year) {
+        String key = CarKeys.brandModelYear(brand, model, year);
+        if (key == null) {
+            return Optional.empty();
+        }
+        readLock.lock();
+        try {
+            Long id = brandModelYearIndex.get(key);
+            return id == null ? Optional.empty() : Optional.ofNullable(cars.get(id));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Car update(Car car) {
+        Objects.requireNonNull(car, "Car cannot be null");
+        Long carId = Objects.requireNonNull(car.getId(), "Car ID cannot be null");
+
+        Car existing = findById(carId);
+        if (existing == null) {
+            throw new CarNotFoundException("Car with ID " + carId + " not found");
+        }
+
+        long position;
+        synchronized (existing) {
+            writeLock.lock();
+            try {
+                if (cars.get(carId) != existing) {
+                    throw new CarNotFoundException("Car with ID " + carId + " not found");
+                }
+                applyUpdate(existing, car);
+                position = mutationLog.logUpdate(existing);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        mutationLog.awaitDurable(position);
+
+        return existing;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        Car existing = findById(id);
+        if (existing == null) {
+            return false;
+        }
+        long position;
+        synchronized (existing) {
+            writeLock.lock();
+            try {
+                if (!cars.remove(id, existing)) {
+                    return false;
+                }
+                String key = CarKeys.brandModelYear(existing.getBrand(), existing.getModel(), existing.getYear());
+                if (key != null) {
+                    brandModelYearIndex.remove(key, id);
+                }
+                position = mutationLog.logDelete(id);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        mutationLog.awaitDurable(position);
+        return true;
+    }
+
+    /**
+     * Logs the entry before applying it, as {@link ConcurrentCarRepository} does
+     */
+    @Override
+    public FuelEntry addFuelEntry(Car car, FuelEntry fuelEntry) {
+        long position;
+        synchronized (car) {
+            writeLock.lock();
+            try {
+                requireStored(car);
+                fuelEntry.setId(nextFuelEntryId++);
+                position = mutationLog.logFuelEntry(car.getId(), fuelEntry);
+                car.addFuelEntry(fuelEntry);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        mutationLog.awaitDurable(position);
+        return fuelEntry;
+    }
+
+    @Override
+    public List<FuelEntry> addFuelEntries(Car car, List<FuelEntry> fuelEntries) {
+        long position;
+        synchronized (car) {
+            writeLock.lock();
+            try {
+                requireStored(car);
+                for (FuelEntry fuelEntry : fuelEntries) {
+                    fuelEntry.setId(nextFuelEntryId++);
+                }
+                position = mutationLog.logFuelEntries(car.getId(), fuelEntries);
+                car.addFuelEntries(fuelEntries);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        mutationLog.awaitDurable(position);
+        return fuelEntries;
+    }
+
+    private void requireStored(Car car) {
+        if (cars.get(car.getId()) != car) {
+            throw new CarNotFoundException("Car with ID " + car.getId() + " not found");
+        }
+    }
+
+    /**
+     * Copy brand/model/year onto the stored car, moving its index entry.
+     * Called with the car's monitor and the write lock held
+     */
+    private void applyUpdate(Car existing, Car changes) {
+        Long carId = existing.getId();
+        String oldKey = CarKeys.brandModelYear(existing.getBrand(), existing.getModel(), existing.getYear());
+        String newKey = CarKeys.brandModelYear(changes.getBrand(), changes.getModel(), changes.getYear());
+        if (newKey != null && !newKey.equals(oldKey)) {
+            Long holder = brandModelYearIndex.putIfAbsent(newKey, carId);
+            if (holder != null && !holder.equals(carId)) {
+                throw new DuplicateCarException(
+                    String.format("Car with brand '%s', model '%s', and year %d already exists",
+                        changes.getBrand(), changes.getModel(), changes.getYear())
+                );
+            }
+        }
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            brandModelYearIndex.remove(oldKey, carId);
+        }
+
+        existing.setBrand(changes.getBrand());
+        existing.setModel(changes.getModel());
+        existing.setYear(changes.getYear());
+    }
+
+    /**
+     * Applies replayed mutations without logging them again.
+     * The brand/model/year index is rebuilt once replay finishes
+     */
+    private class RecoveryState implements MutationLog.State {
+        @Override
+        public void restoreCounters(long carId, long fuelEntryId) {
+            writeLock.lock();
+            try {
+                nextCarId = Math.max(nextCarId, carId);
+                nextFuelEntryId = Math.max(nextFuelEntryId, fuelEntryId);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void restoreSave(Car car) {
+            writeLock.lock();
+            try {
+                nextCarId = Math.max(nextCarId, car.getId() + 1);
+                Car existing = cars.putIfAbsent(car.getId(), car);
+                if (existing != null) {
+                    overwrite(existing, car);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void restoreUpdate(Car car) {
+            writeLock.lock();
+            try {
+                Car existing = cars.get(car.getId());
+                if (existing != null) {
+                    overwrite(existing, car);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void overwrite(Car existing, Car car) {
+            existing.setBrand(car.getBrand());
+            existing.setModel(car.getModel());
+            existing.setYear(car.getYear());
+        }
+
+        @Override
+        public void restoreDelete(Long carId) {
+            writeLock.lock();
+            try {
+                cars.remove(carId);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void restoreFuelEntry(Long carId, FuelEntry fuelEntry) {
+            writeLock.lock();
+            try {
+                if (fuelEntry.getId() != null) {
+                    nextFuelEntryId = Math.max(nextFuelEntryId, fuelEntry.getId() + 1);
+                }
+                Car car = cars.get(carId);
+                if (car == null) {
+                    return;
+                }
+                FuelEntryStore entries = car.getFuelEntryStore();
+                int size = entries.size();
+                if (size > 0 && fuelEntry.getId() != null) {
+                    long lastId = entries.idAt(size - 1);
+                    if (lastId != FuelEntryStore.NO_ID && lastId >= fuelEntry.getId()) {
+                        return;
+                    }
+                }
+                car.addFuelEntry(fuelEntry);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public Collection<Car> liveCars() {
+            return findAll();
+        }
+
+        @Override
+        public long nextCarId() {
+            readLock.lock();
+            try {
+                return nextCarId;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        @Override
+        public long nextFuelEntryId() {
+            readLock.lock();
+            try {
+                return nextFuelEntryId;
+            } finally {
+                readLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable record of repository mutations.
+ * <p>
+ * Recording a mutation is split in two: a {@code log*} call appends the record in memory and
+ * returns its position, cheaply enough to be made under the locks that order mutations, and
+ * {@link #awaitDurable} then waits, with no locks held, until the record is as durable as the
+ * log promises. Mutations are therefore visible to readers before their writers are
+ * acknowledged, but never acknowledged before they are durable
+ */
+public interface MutationLog extends AutoCloseable {
+
+    /**
+     * Log that keeps nothing, used when durable mode is disabled
+     */
+    MutationLog NONE = new MutationLog() {
+        @Override
+        public void open(State state) {
+        }
+
+        @Override
+        public long logSave(Car car) {
+            return 0;
+        }
+
+        @Override
+        public long logUpdate(Car car) {
+            return 0;
+        }
+
+        @Override
+        public long logDelete(Long carId) {
+            return 0;
+        }
+
+        @Override
+        public long logFuelEntry(Long carId, FuelEntry fuelEntry) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Replay the existing log into the given state, then start accepting appends
+     */
+    void open(State state);
+
+    /**
+     * Append a save record; returns its position for {@link #awaitDurable}
+     */
+    long logSave(Car car);
+
+    long logUpdate(Car car);
+
+    long logDelete(Long carId);
+
+    long logFuelEntry(Long carId, FuelEntry fuelEntry);
+
+    /**
+     * Log several fuel entries appended to one car as a unit; returns the position of the last
+     */
+    default long logFuelEntries(Long carId, List<FuelEntry> fuelEntries) {
+        long position = 0;
+        for (FuelEntry fuelEntry : fuelEntries) {
+            position = logFuelEntry(carId, fuelEntry);
+        }
+        return position;
+    }
+
+    /**
+     * Wait until every record up to position is durable under the log's fsync policy.
+     * Call it after releasing the locks held while logging, so the wait never holds up
+     * other writers or readers
+     */
+    void awaitDurable(long position);
+
+    /**
+     * Flush and release the log
+     */
+    @Override
+    void close();
+
+    /**
+     * Repository state the log recovers into and compacts from.
+     * Restore callbacks must be idempotent: after compaction a record may be
+     * replayed on top of state that already contains it
+     */
+    interface State {
+        void restoreCounters(long nextCarId, long nextFuelEntryId);
+
+        /**
+         * Insert the car, or overwrite brand/model/year if the ID already exists
+         */
+        void restoreSave(Car car);
+
+        /**
+         * Overwrite brand/model/year of an existing car; ignored if the car is gone
+         */
+        void restoreUpdate(Car car);
+
+        void restoreDelete(Long carId);
+
+        /**
+         * Append the entry unless the car is gone or already holds an entry with this ID or later
+         */
+        void restoreFuelEntry(Long carId, FuelEntry fuelEntry);
+
+        Collection<Car> liveCars();
+
+        long nextCarId();
+
+        long nextFuelEntryId();
+    }
+}
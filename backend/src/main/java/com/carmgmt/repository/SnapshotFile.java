@@ -0,0 +1,308 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntryStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of the repository, loaded through {@link FileChannel#map}.
+ * <p>
+ * Layout (little-endian): a fixed header, then per car its ID, year, brand, model and
+ * entry count followed by the fuel history as five contiguous columns
+ * (ids, timestamps, milliliters, prices in minor units, odometers). Columns are bulk-copied
+ * straight from the mapping into {@link FuelEntryStore} arrays, so loading costs one pass
+ * over the file.
+ */
+public final class SnapshotFile {
+    private static final long MAGIC = 0x3130_5041_4e53_4d43L; // "CMSNAP01"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 56;
+    private static final int NULL_YEAR = Integer.MIN_VALUE;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final long MAP_WINDOW_SIZE = 1L << 30;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Write the live state to path; returns the file size.
+     * firstSegment is the first log segment not covered by the snapshot
+     */
+    public static long write(Path path, MutationLog.State state, long firstSegment) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel, HEADER_SIZE);
+            long carCount = 0;
+            for (Car car : state.liveCars()) {
+                Long id;
+                String brand;
+                String model;
+                Integer year;
+                FuelEntryStore entries;
+                synchronized (car) {
+                    id = car.getId();
+                    brand = car.getBrand();
+                    model = car.getModel();
+                    year = car.getYear();
+                    entries = car.getFuelEntryStore();
+                }
+                int size = entries.size();
+
+                out.putLong(id);
+                out.putInt(year != null ? year : NULL_YEAR);
+                out.putString(brand);
+                out.putString(model);
+                out.putInt(size);
+                for (int i = 0; i < size; i++) {
+                    out.putLong(entries.idAt(i));
+                }
+                for (int i = 0; i < size; i++) {
+                    out.putLong(entries.timestampAt(i));
+                }
+                for (int i = 0; i < size; i++) {
+                    out.putLong(entries.millilitersAt(i));
+                }
+                for (int i = 0; i < size; i++) {
+                    out.putLong(entries.priceMinorUnitsAt(i));
+                }
+                for (int i = 0; i < size; i++) {
+                    out.putInt(entries.odometerAt(i));
+                }
+                carCount++;
+            }
+            out.flush();
+
+            // Counters are read after the cars so they cover every ID written above
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(0);
+            header.putLong(firstSegment);
+            header.putLong(state.nextCarId());
+            header.putLong(state.nextFuelEntryId());
+            header.putLong(carCount);
+            header.putLong(out.crc.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_SIZE - header.remaining());
+            }
+            channel.force(true);
+            return channel.size();
+        }
+    }
+
+    /**
+     * Load the snapshot into state; returns the first log segment it does not cover
+     */
+    public static long load(Path path, MutationLog.State state) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IllegalStateException("Truncated snapshot: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getLong() != MAGIC) {
+                throw new IllegalStateException("Not a snapshot file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported snapshot version " + version + ": " + path);
+            }
+            header.getInt();
+            long firstSegment = header.getLong();
+            long nextCarId = header.getLong();
+            long nextFuelEntryId = header.getLong();
+            long carCount = header.getLong();
+            long expectedCrc = header.getLong();
+
+            if (checksum(channel, fileSize) != expectedCrc) {
+                throw new IllegalStateException("Corrupt snapshot: " + path);
+            }
+
+            Input in = new Input(channel, HEADER_SIZE, fileSize);
+            for (long c = 0; c < carCount; c++) {
+                long id = in.getLong();
+                int year = in.getInt();
+                String brand = in.getString();
+                String model = in.getString();
+                int size = in.getInt();
+
+                long[] ids = new long[size];
+                long[] timestamps = new long[size];
+                long[] milliliters = new long[size];
+                long[] prices = new long[size];
+                int[] odometers = new int[size];
+                in.getLongs(ids);
+                in.getLongs(timestamps);
+                in.getLongs(milliliters);
+                in.getLongs(prices);
+                in.getInts(odometers);
+
+                Car car = new Car(brand, model, year == NULL_YEAR ? null : year);
+                car.setId(id);
+                car.replaceFuelEntries(FuelEntryStore.of(ids, timestamps, milliliters, prices, odometers, size));
+                state.restoreSave(car);
+            }
+            state.restoreCounters(nextCarId, nextFuelEntryId);
+            return firstSegment;
+        }
+    }
+
+    private static long checksum(FileChannel channel, long fileSize) throws IOException {
+        CRC32 crc = new CRC32();
+        for (long position = HEADER_SIZE; position < fileSize; position += MAP_WINDOW_SIZE) {
+            long length = Math.min(MAP_WINDOW_SIZE, fileSize - position);
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Buffered sequential writer that checksums everything it writes
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+        private long position;
+
+        Output(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putString(String value) throws IOException {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Sequential reader over a file mapped in windows of up to 1 GiB
+     */
+    private static final class Input {
+        private final FileChannel channel;
+        private final long fileSize;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        Input(FileChannel channel, long position, long fileSize) throws IOException {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            map(position);
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return window.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(Long.BYTES);
+            return window.getLong();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                ensure(1);
+                int chunk = Math.min(window.remaining(), length - offset);
+                window.get(bytes, offset, chunk);
+                offset += chunk;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void getLongs(long[] target) throws IOException {
+            int offset = 0;
+            while (offset < target.length) {
+                ensure(Long.BYTES);
+                int chunk = Math.min(window.remaining() / Long.BYTES, target.length - offset);
+                window.asLongBuffer().get(target, offset, chunk);
+                window.position(window.position() + chunk * Long.BYTES);
+                offset += chunk;
+            }
+        }
+
+        void getInts(int[] target) throws IOException {
+            int offset = 0;
+            while (offset < target.length) {
+                ensure(Integer.BYTES);
+                int chunk = Math.min(window.remaining() / Integer.BYTES, target.length - offset);
+                window.asIntBuffer().get(target, offset, chunk);
+                window.position(window.position() + chunk * Integer.BYTES);
+                offset += chunk;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (window.remaining() >= bytes) {
+                return;
+            }
+            long position = windowStart + window.position();
+            if (position + bytes > fileSize) {
+                throw new IllegalStateException("Truncated snapshot at offset " + position);
+            }
+            map(position);
+        }
+
+        private void map(long position) throws IOException {
+            long length = Math.min(MAP_WINDOW_SIZE, fileSize - position);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = position;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.carmgmt.repository;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates the {@link CarRepository} named by {@code carmgmt.storage.backend}: one of the
+ * built-in backends, or the fully qualified name of a class implementing the interface
+ * with a public {@code (MutationLog)} or no-argument constructor
+ */
+public final class StorageBackend {
+    /**
+     * {@link ConcurrentCarRepository}, the default
+     */
+    public static final String CONCURRENT = "concurrent";
+
+    /**
+     * {@link LockedCarRepository}
+     */
+    public static final String LOCKED = "locked";
+
+    public static final List<String> BUILT_IN = List.of(CONCURRENT, LOCKED);
+
+    private StorageBackend() {
+    }
+
+    /**
+     * Create the named backend, recording into the given log. Does not recover it
+     */
+    public static CarRepository create(String backend, MutationLog mutationLog) {
+        switch (backend.trim().toLowerCase(Locale.ROOT)) {
+            case CONCURRENT:
+                return new ConcurrentCarRepository(mutationLog);
+            case LOCKED:
+                return new LockedCarRepository(mutationLog);
+            default:
+                return instantiate(backend.trim(), mutationLog);
+        }
+    }
+
+    private static CarRepository instantiate(String className, MutationLog mutationLog) {
+        Class<?> type;
+        try {
+            type = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unknown storage backend '" + className
+                    + "': expected one of " + BUILT_IN + " or a CarRepository class name");
+        }
+        if (!CarRepository.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Storage backend " + className + " does not implement CarRepository");
+        }
+        try {
+            try {
+                Constructor<?> constructor = type.getConstructor(MutationLog.class);
+                return (CarRepository) constructor.newInstance(mutationLog);
+            } catch (NoSuchMethodException e) {
+                if (mutationLog != MutationLog.NONE) {
+                    throw new IllegalArgumentException("Storage backend " + className
+                            + " has no (MutationLog) constructor, so it cannot use the write-ahead log");
+                }
+                return (CarRepository) type.getConstructor().newInstance();
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Storage backend " + className
+                    + " needs a public (MutationLog) or no-argument constructor");
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot create storage backend " + className, e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalArgumentException("Cannot create storage backend " + className, e.getCause());
+        }
+    }
+}
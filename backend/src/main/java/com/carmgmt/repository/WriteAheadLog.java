@@ -0,0 +1,696 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.model.FuelEntryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary write-ahead log.
+ * <p>
+ * Records are framed as {@code [int length][int crc32][payload]} and appended to
+ * numbered segment files ({@code wal-<seq>.log}). Compaction rotates to a new segment,
+ * writes the live state to a {@link SnapshotFile} and deletes the segments it covers.
+ * It runs when the log outgrows its threshold, periodically, and on close. Recovery
+ * loads the snapshot and replays every later segment; a torn record at the end of the
+ * last segment is truncated.
+ */
+public class WriteAheadLog implements MutationLog {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+
+    private static final byte SAVE = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+    private static final byte FUEL_ENTRY = 4;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long flushIntervalMillis;
+    private final long compactionThresholdBytes;
+    private final long snapshotIntervalMillis;
+
+    // Guards pending, encoder, crc and appendedPosition
+    private final Object appendLock = new Object();
+    private RecordBuffer pending = new RecordBuffer(64 * 1024);
+    private final RecordBuffer encoder = new RecordBuffer(256);
+    private final CRC32 crc = new CRC32();
+    // Bytes framed since the log was opened; a record's position is the value right after framing it
+    private long appendedPosition;
+
+    // Signalled whenever syncedPosition advances. Locks rather than monitors, here and for
+    // ioLock, so a virtual thread waiting for durability does not pin its carrier
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    // Appended position covered by the last fsync; only advanced under ioLock
+    private volatile long syncedPosition;
+
+    // Guards the segment channel and everything written to it
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private RecordBuffer spare = new RecordBuffer(64 * 1024);
+    private FileChannel segment;
+    private long segmentSeq;
+    private long segmentBytes;
+    private long logBytes;
+    private long snapshotBytes;
+    private boolean dirty;
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private State state;
+    private ScheduledExecutorService flusher;
+    private ExecutorService compactor;
+    private volatile boolean closed;
+
+    public WriteAheadLog(Path directory, FsyncPolicy fsyncPolicy, long flushIntervalMillis,
+                         long compactionThresholdBytes, long snapshotIntervalMillis) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+    }
+
+    @Override
+    public void open(State state) {
+        this.state = state;
+        try {
+            Files.createDirectories(directory);
+            long firstSegment = loadSnapshot();
+            long nextSegment = replaySegments(firstSegment);
+            ioLock.lock();
+            try {
+                openSegment(nextSegment);
+            } finally {
+                ioLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover write-ahead log in " + directory, e);
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(daemonThreads("wal-flusher"));
+        flusher.scheduleWithFixedDelay(this::backgroundFlush,
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if (snapshotIntervalMillis > 0) {
+            flusher.scheduleWithFixedDelay(this::periodicSnapshot,
+                    snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        compactor = Executors.newSingleThreadExecutor(daemonThreads("wal-compactor"));
+        logger.info("Write-ahead log opened in {} (fsync={}, segment={})", directory, fsyncPolicy, segmentSeq);
+    }
+
+    @Override
+    public long logSave(Car car) {
+        long position;
+        synchronized (appendLock) {
+            encoder.clear();
+            encoder.putByte(SAVE);
+            encodeCar(encoder, car);
+            frame(pending);
+            position = appendedPosition;
+        }
+        return position;
+    }
+
+    @Override
+    public long logUpdate(Car car) {
+        long position;
+        synchronized (appendLock) {
+            encoder.clear();
+            encoder.putByte(UPDATE);
+            encodeCar(encoder, car);
+            frame(pending);
+            position = appendedPosition;
+        }
+        return position;
+    }
+
+    @Override
+    public long logDelete(Long carId) {
+        long position;
+        synchronized (appendLock) {
+            encoder.clear();
+            encoder.putByte(DELETE);
+            encoder.putLong(carId);
+            frame(pending);
+            position = appendedPosition;
+        }
+        return position;
+    }
+
+    @Override
+    public long logFuelEntry(Long carId, FuelEntry fuelEntry) {
+        long position;
+        synchronized (appendLock) {
+            encoder.clear();
+            encoder.putByte(FUEL_ENTRY);
+            encoder.putLong(carId);
+            encodeFuelEntry(encoder, fuelEntry);
+            frame(pending);
+            position = appendedPosition;
+        }
+        return position;
+    }
+
+    @Override
+    public long logFuelEntries(Long carId, List<FuelEntry> fuelEntries) {
+        // One pass through the append lock, and one position to wait for, for the whole batch
+        long position;
+        synchronized (appendLock) {
+            for (FuelEntry fuelEntry : fuelEntries) {
+                encoder.clear();
+                encoder.putByte(FUEL_ENTRY);
+                encoder.putLong(carId);
+                encodeFuelEntry(encoder, fuelEntry);
+                frame(pending);
+            }
+            position = appendedPosition;
+        }
+        return position;
+    }
+
+    /**
+     * Write the live state as a snapshot and drop the segments it covers
+     */
+    public void compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long coveredUpTo;
+            ioLock.lock();
+            try {
+                flushLocked(true);
+                segment.close();
+                coveredUpTo = segmentSeq;
+                openSegment(segmentSeq + 1);
+            } finally {
+                ioLock.unlock();
+            }
+
+            long started = System.nanoTime();
+            Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+            long written = SnapshotFile.write(temp, state, coveredUpTo + 1);
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ioLock.lock();
+            try {
+                snapshotBytes = written;
+                logBytes = segmentBytes;
+            } finally {
+                ioLock.unlock();
+            }
+            deleteSegmentsBefore(coveredUpTo + 1);
+            logger.info("Wrote snapshot of {} bytes covering log segments up to {} in {} ms",
+                    written, coveredUpTo, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            logger.error("Write-ahead log compaction failed", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (segment == null) {
+            return;
+        }
+        if (hasUnsnapshottedChanges()) {
+            compact();
+        }
+        ioLock.lock();
+        try {
+            flushLocked(fsyncPolicy != FsyncPolicy.OS);
+            segment.close();
+        } catch (IOException e) {
+            logger.error("Failed to close write-ahead log", e);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Apply the fsync policy to a record appended up to position
+     */
+    @Override
+    public void awaitDurable(long position) {
+        try {
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                if (syncedPosition < position) {
+                    flush(true);
+                }
+            } else if (fsyncPolicy == FsyncPolicy.GROUP) {
+                awaitSynced(position);
+            } else if (pendingBytes() >= FLUSH_THRESHOLD) {
+                flush(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the write-ahead log", e);
+        }
+    }
+
+    /**
+     * Group commit: wait for the background flush to fsync position together with everything
+     * else appended in the same interval. If it has not within one flush interval (the flusher
+     * is busy compacting, say), write and fsync here instead
+     */
+    private void awaitSynced(long position) throws IOException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        syncLock.lock();
+        try {
+            while (syncedPosition < position && remaining > 0) {
+                remaining = synced.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            syncLock.unlock();
+        }
+        if (syncedPosition < position) {
+            flush(true);
+        }
+    }
+
+    private int pendingBytes() {
+        synchronized (appendLock) {
+            return pending.position();
+        }
+    }
+
+    private void backgroundFlush() {
+        try {
+            flush(fsyncPolicy != FsyncPolicy.OS);
+            boolean overThreshold;
+            ioLock.lock();
+            try {
+                overThreshold = logBytes >= Math.max(compactionThresholdBytes, snapshotBytes);
+            } finally {
+                ioLock.unlock();
+            }
+            if (overThreshold && !compacting.get() && !closed) {
+                compactor.execute(this::compact);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Write-ahead log flush failed", e);
+        }
+    }
+
+    private void periodicSnapshot() {
+        if (hasUnsnapshottedChanges() && !compacting.get() && !closed) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    private boolean hasUnsnapshottedChanges() {
+        synchronized (appendLock) {
+            if (pending.position() > 0) {
+                return true;
+            }
+        }
+        ioLock.lock();
+        try {
+            return logBytes > 0;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void flush(boolean force) throws IOException {
+        ioLock.lock();
+        try {
+            flushLocked(force);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void flushLocked(boolean force) throws IOException {
+        RecordBuffer toWrite;
+        long covered;
+        synchronized (appendLock) {
+            toWrite = pending;
+            pending = spare;
+            spare = toWrite;
+            covered = appendedPosition;
+        }
+        if (toWrite.position() > 0) {
+            ByteBuffer bytes = toWrite.flipped();
+            while (bytes.hasRemaining()) {
+                segment.write(bytes);
+            }
+            segmentBytes += toWrite.position();
+            logBytes += toWrite.position();
+            dirty = true;
+        }
+        toWrite.clear();
+        if (force) {
+            if (dirty) {
+                segment.force(false);
+                dirty = false;
+            }
+            syncLock.lock();
+            try {
+                syncedPosition = covered;
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        segment = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSeq = seq;
+        segmentBytes = segment.size();
+        logBytes += segmentBytes;
+    }
+
+    // Called with appendLock held; frames the encoded payload into target
+    private void frame(RecordBuffer target) {
+        int length = encoder.position();
+        if (length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Write-ahead log record too large: " + length + " bytes");
+        }
+        crc.reset();
+        crc.update(encoder.array(), 0, length);
+        target.putInt(length);
+        target.putInt((int) crc.getValue());
+        target.putBytes(encoder.array(), 0, length);
+        appendedPosition += HEADER_SIZE + length;
+    }
+
+    /**
+     * Load the snapshot, if any; returns the first segment it does not cover
+     */
+    private long loadSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        Files.deleteIfExists(directory.resolve(SNAPSHOT_TEMP_FILE));
+        if (!Files.exists(snapshot)) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        long firstSegment = SnapshotFile.load(snapshot, state);
+        snapshotBytes = Files.size(snapshot);
+        logger.info("Loaded snapshot of {} bytes in {} ms", snapshotBytes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return firstSegment;
+    }
+
+    /**
+     * Replay every segment from firstSegment on; returns the sequence number for the next segment
+     */
+    private long replaySegments(long firstSegment) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(sequences::add);
+        }
+
+        long nextSegment = firstSegment;
+        for (int i = 0; i < sequences.size(); i++) {
+            long seq = sequences.get(i);
+            Path path = segmentPath(seq);
+            if (seq < firstSegment) {
+                Files.delete(path);
+                continue;
+            }
+            long validBytes = replayFile(path);
+            long size = Files.size(path);
+            if (validBytes != size) {
+                if (i != sequences.size() - 1) {
+                    throw new IllegalStateException("Corrupt write-ahead log segment: " + path);
+                }
+                logger.warn("Truncating torn write-ahead log tail in {} at {} of {} bytes", path, validBytes, size);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(validBytes);
+                }
+            }
+            logBytes += validBytes;
+            nextSegment = seq + 1;
+        }
+        return nextSegment;
+    }
+
+    /**
+     * Apply every intact record in the file; returns the number of bytes replayed
+     */
+    private long replayFile(Path path) throws IOException {
+        long position = 0;
+        byte[] payload = new byte[256];
+        CRC32 replayCrc = new CRC32();
+        try (InputStream stream = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024))) {
+            while (true) {
+                int length;
+                int expectedCrc;
+                try {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                } catch (EOFException e) {
+                    return position;
+                }
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    return position;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                try {
+                    in.readFully(payload, 0, length);
+                } catch (EOFException e) {
+                    return position;
+                }
+                replayCrc.reset();
+                replayCrc.update(payload, 0, length);
+                if ((int) replayCrc.getValue() != expectedCrc) {
+                    return position;
+                }
+                apply(ByteBuffer.wrap(payload, 0, length));
+                position += HEADER_SIZE + length;
+            }
+        }
+    }
+
+    private void apply(ByteBuffer record) {
+        byte type = record.get();
+        switch (type) {
+            case SAVE:
+                state.restoreSave(decodeCar(record));
+                break;
+            case UPDATE:
+                state.restoreUpdate(decodeCar(record));
+                break;
+            case DELETE:
+                state.restoreDelete(record.getLong());
+                break;
+            case FUEL_ENTRY:
+                long carId = record.getLong();
+                state.restoreFuelEntry(carId, decodeFuelEntry(record));
+                break;
+            default:
+                throw new IllegalStateException("Unknown write-ahead log record type: " + type);
+        }
+    }
+
+    private void deleteSegmentsBefore(long seq) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long fileSeq = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length()));
+                    if (fileSeq < seq) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+
+    private static void encodeCar(RecordBuffer out, Car car) {
+        out.putLong(car.getId());
+        out.putString(car.getBrand());
+        out.putString(car.getModel());
+        out.putInt(car.getYear() != null ? car.getYear() : Integer.MIN_VALUE);
+    }
+
+    private static Car decodeCar(ByteBuffer in) {
+        long id = in.getLong();
+        String brand = getString(in);
+        String model = getString(in);
+        int year = in.getInt();
+        Car car = new Car(brand, model, year == Integer.MIN_VALUE ? null : year);
+        car.setId(id);
+        return car;
+    }
+
+    private static void encodeFuelEntry(RecordBuffer out, FuelEntry fuelEntry) {
+        out.putLong(fuelEntry.getId() != null ? fuelEntry.getId() : FuelEntryStore.NO_ID);
+        out.putLong(fuelEntry.getMilliliters() != null ? fuelEntry.getMilliliters() : FuelEntryStore.NO_AMOUNT);
+        out.putLong(fuelEntry.getPriceMinorUnits() != null
+                ? fuelEntry.getPriceMinorUnits() : FuelEntryStore.NO_AMOUNT);
+        out.putInt(fuelEntry.getOdometer() != null ? fuelEntry.getOdometer() : FuelEntryStore.NO_ODOMETER);
+        out.putLong(fuelEntry.getTimestamp() != null
+                ? fuelEntry.getTimestamp().toEpochMilli() : FuelEntryStore.NO_TIMESTAMP);
+    }
+
+    private static FuelEntry decodeFuelEntry(ByteBuffer in) {
+        long id = in.getLong();
+        long volume = in.getLong();
+        long price = in.getLong();
+        Long milliliters = volume == FuelEntryStore.NO_AMOUNT ? null : volume;
+        Long priceMinorUnits = price == FuelEntryStore.NO_AMOUNT ? null : price;
+        int odometer = in.getInt();
+        long timestamp = in.getLong();
+        FuelEntry fuelEntry = new FuelEntry(milliliters, priceMinorUnits,
+                odometer == FuelEntryStore.NO_ODOMETER ? null : odometer);
+        fuelEntry.setId(id == FuelEntryStore.NO_ID ? null : id);
+        fuelEntry.setTimestamp(timestamp == FuelEntryStore.NO_TIMESTAMP ? null : Instant.ofEpochMilli(timestamp));
+        return fuelEntry;
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Growable big-endian byte buffer
+     */
+    private static final class RecordBuffer {
+        private ByteBuffer buffer;
+
+        RecordBuffer(int capacity) {
+            this.buffer = ByteBuffer.allocate(capacity);
+        }
+
+        void clear() {
+            buffer.clear();
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        byte[] array() {
+            return buffer.array();
+        }
+
+        ByteBuffer flipped() {
+            return ByteBuffer.wrap(buffer.array(), 0, buffer.position());
+        }
+
+        void putByte(byte value) {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            buffer.put(bytes, offset, length);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            putBytes(bytes, 0, bytes.length);
+        }
+
+        private void ensure(int extra) {
+            if (buffer.remaining() >= extra) {
+                return;
+            }
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + extra);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+}
@@ -1,18 +1,38 @@
 package com.carmgmt.service;
 
+import com.carmgmt.dto.AddFuelRequest;
+import com.carmgmt.dto.BulkFuelRequest;
+import com.carmgmt.dto.CarSummary;
+import com.carmgmt.dto.CursorPage;
+import com.carmgmt.dto.FuelBatchResult;
+import com.carmgmt.dto.SortOrder;
 import com.carmgmt.exception.CarNotFoundException;
 import com.carmgmt.exception.DuplicateCarException;
 import com.carmgmt.exception.ValidationException;
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.metrics.OperationTimer;
 import com.carmgmt.model.Car;
+import com.carmgmt.model.FixedPoint;
+import com.carmgmt.model.FleetStats;
+import com.carmgmt.model.FleetTotals;
 import com.carmgmt.model.FuelEntry;
+import com.carmgmt.model.FuelEntryStore;
+import com.carmgmt.model.FuelRollups;
 import com.carmgmt.model.FuelStats;
+import com.carmgmt.model.FuelTotals;
 import com.carmgmt.repository.CarRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Service layer for car and fuel operations
@@ -21,13 +41,32 @@ import java.util.concurrent.atomic.AtomicLong;
 public class CarService {
     private static final int FIRST_CAR_YEAR = 1886; // First car was invented in 1886
     private static final int FUTURE_YEAR_ALLOWANCE = 1; // Allow one year in the future for new models
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    // Below this fleet size a sequential reduction beats the cost of forking tasks
+    private static final int PARALLEL_FLEET_THRESHOLD = 10_000;
     
     private final CarRepository carRepository;
-    private final AtomicLong fuelEntryIdGenerator = new AtomicLong(1);
+    private final FuelStatsCache fuelStatsCache;
+    private final OperationTimer createTimer;
+    private final OperationTimer listTimer;
+    private final OperationTimer addFuelTimer;
+    private final OperationTimer addFuelBatchTimer;
+    private final OperationTimer statsTimer;
 
-    @Autowired
     public CarService(CarRepository carRepository) {
+        this(carRepository, FuelStatsCache.disabled(), MetricsRegistry.disabled());
+    }
+
+    @Autowired
+    public CarService(CarRepository carRepository, FuelStatsCache fuelStatsCache, MetricsRegistry metrics) {
         this.carRepository = carRepository;
+        this.fuelStatsCache = fuelStatsCache;
+        this.createTimer = metrics.sampledTimer(MetricsRegistry.SERVICE, "create");
+        this.listTimer = metrics.sampledTimer(MetricsRegistry.SERVICE, "list");
+        this.addFuelTimer = metrics.sampledTimer(MetricsRegistry.SERVICE, "add-fuel");
+        this.addFuelBatchTimer = metrics.sampledTimer(MetricsRegistry.SERVICE, "add-fuel-batch");
+        this.statsTimer = metrics.sampledTimer(MetricsRegistry.SERVICE, "stats");
     }
 
     /**
@@ -57,26 +96,72 @@ public class CarService {
      * Create a new car
      */
     public Car createCar(String brand, String model, Integer year) {
-        // Validate input
-        validateCarInput(brand, model, year);
-        
-        // Check for duplicate car
-        if (carRepository.existsByBrandModelYear(brand.trim(), model.trim(), year)) {
-            throw new DuplicateCarException(
-                String.format("Car with brand '%s', model '%s', and year %d already exists", 
-                    brand.trim(), model.trim(), year)
-            );
+        long start = createTimer.start();
+        try {
+            // Validate input
+            validateCarInput(brand, model, year);
+
+            // Insert atomically, rejecting duplicates
+            Car car = new Car(brand.trim(), model.trim(), year);
+            if (!carRepository.saveIfAbsent(car)) {
+                throw new DuplicateCarException(
+                    String.format("Car with brand '%s', model '%s', and year %d already exists", 
+                        brand.trim(), model.trim(), year)
+                );
+            }
+            return car;
+        } finally {
+            createTimer.stop(start);
         }
-        
-        Car car = new Car(brand.trim(), model.trim(), year);
-        return carRepository.save(car);
     }
 
     /**
      * Get all cars
      */
     public List<Car> getAllCars() {
-        return carRepository.findAll();
+        long start = listTimer.start();
+        try {
+            return carRepository.findAll();
+        } finally {
+            listTimer.stop(start);
+        }
+    }
+
+    /**
+     * Get one page of cars ordered by ID, starting after the given cursor
+     */
+    public CursorPage<Car> getCarsPage(Long after, int limit) {
+        long start = listTimer.start();
+        try {
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+
+            // Fetch one extra car to find out whether another page follows
+            List<Car> cars = carRepository.findAfter(after, limit + 1);
+            boolean hasMore = cars.size() > limit;
+            if (hasMore) {
+                cars = cars.subList(0, limit);
+            }
+            Long nextCursor = hasMore ? cars.get(cars.size() - 1).getId() : null;
+            return new CursorPage<>(cars, nextCursor, hasMore);
+        } finally {
+            listTimer.stop(start);
+        }
+    }
+
+    /**
+     * Iterate all cars ordered by ID, starting after the given cursor, without copying them
+     */
+    public Iterable<Car> iterateCars(Long after) {
+        return carRepository.iterateAfter(after);
+    }
+
+    /**
+     * Find car by ID, or null if there is none
+     */
+    public Car findCarById(Long id) {
+        return carRepository.findById(id);
     }
 
     /**
@@ -91,94 +176,415 @@ public class CarService {
     }
 
     /**
-     * Add fuel entry to a car
+     * Summarize a car from its running totals, without reading its fuel history
      */
-    public FuelEntry addFuelEntry(Long carId, Double liters, Double price, Integer odometer) {
-        Car car = carRepository.findById(carId);
-        if (car == null) {
-            throw new CarNotFoundException("Car with ID " + carId + " not found");
+    public CarSummary summarize(Car car) {
+        FuelTotals totals = car.getFuelTotals();
+        return new CarSummary(car.getId(), car.getBrand(), car.getModel(), car.getYear(),
+                totals.getEntryCount(), toFuelStats(totals));
+    }
+
+    /**
+     * Summarize each of the cars, in order
+     */
+    public List<CarSummary> summarize(List<Car> cars) {
+        List<CarSummary> summaries = new ArrayList<>(cars.size());
+        for (Car car : cars) {
+            summaries.add(summarize(car));
         }
+        return summaries;
+    }
 
-        // Validate input
-        if (liters == null || liters <= 0) {
-            throw new ValidationException("Liters must be a positive number");
+    /**
+     * One page of a car's fuel history in entry ID order, oldest or newest first.
+     * "after" is the ID of the last entry already seen; afterOdometer skips entries up to that
+     * reading (or from it on, newest first). Entries are read straight from the car's columns:
+     * both cursors are binary searches, and only the returned entries are materialized
+     */
+    public CursorPage<FuelEntry> getFuelEntriesPage(Long carId, Long after, Integer afterOdometer,
+                                                    SortOrder order, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-        if (price == null || price < 0) {
-            throw new ValidationException("Price cannot be negative");
+        Car car = getCarById(carId);
+        FuelEntryStore store = car.getFuelEntryStore();
+        // Read size before the sorted flag, so the flag covers every row below it
+        int size = store.size();
+        boolean newestFirst = order == SortOrder.DESC;
+
+        // Candidate positions are [from, to)
+        int from = 0;
+        int to = size;
+        if (after != null) {
+            if (newestFirst) {
+                to = after == Long.MIN_VALUE ? 0 : store.indexAfterId(after - 1, size);
+            } else {
+                from = store.indexAfterId(after, size);
+            }
         }
-        if (odometer == null || odometer < 0) {
-            throw new ValidationException("Odometer must be a non-negative number");
-        }
-
-        // Validate odometer is increasing
-        List<FuelEntry> existingEntries = car.getFuelEntries();
-        if (!existingEntries.isEmpty()) {
-            Integer maxOdometer = existingEntries.stream()
-                    .filter(e -> e.getOdometer() != null)
-                    .mapToInt(FuelEntry::getOdometer)
-                    .max()
-                    .orElse(0);
-            
-            if (odometer < maxOdometer) {
-                throw new ValidationException(
-                    String.format("Odometer reading (%d) cannot be less than previous maximum (%d)", 
-                        odometer, maxOdometer)
-                );
+        boolean filterOdometer = false;
+        if (afterOdometer != null) {
+            if (!store.isOdometerSorted()) {
+                // Only a replaced history can be out of order; check each entry instead
+                filterOdometer = true;
+            } else if (newestFirst) {
+                to = Math.min(to, store.indexFromOdometer(afterOdometer, size));
+            } else {
+                from = Math.max(from, store.indexAfterOdometer(afterOdometer, size));
+            }
+        }
+
+        List<FuelEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, to - from)));
+        boolean hasMore = false;
+        int step = newestFirst ? -1 : 1;
+        for (int i = newestFirst ? to - 1 : from; i >= from && i < to; i += step) {
+            if (filterOdometer && !isPastOdometer(store.odometerAt(i), afterOdometer, newestFirst)) {
+                continue;
             }
+            if (entries.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            entries.add(store.get(i));
         }
+        Long nextCursor = hasMore ? entries.get(entries.size() - 1).getId() : null;
+        return new CursorPage<>(entries, nextCursor, hasMore);
+    }
 
-        FuelEntry fuelEntry = new FuelEntry(liters, price, odometer);
-        fuelEntry.setId(fuelEntryIdGenerator.getAndIncrement());
-        car.addFuelEntry(fuelEntry);
-        return fuelEntry;
+    private static boolean isPastOdometer(int odometer, int cursor, boolean newestFirst) {
+        if (odometer == FuelEntryStore.NO_ODOMETER) {
+            return false;
+        }
+        return newestFirst ? odometer < cursor : odometer > cursor;
     }
 
     /**
-     * Calculate fuel statistics for a car
+     * Add fuel entry to a car, timestamped now
      */
-    public FuelStats getFuelStats(Long carId) {
-        Car car = carRepository.findById(carId);
-        if (car == null) {
-            throw new CarNotFoundException("Car with ID " + carId + " not found");
+    public FuelEntry addFuelEntry(Long carId, Long milliliters, Long priceMinorUnits, Integer odometer) {
+        return addFuelEntry(carId, milliliters, priceMinorUnits, odometer, null);
+    }
+
+    /**
+     * Add fuel entry to a car; a null timestamp means now.
+     * Volume and price are in {@link FixedPoint} units (milliliters and minor currency units)
+     */
+    public FuelEntry addFuelEntry(Long carId, Long milliliters, Long priceMinorUnits, Integer odometer,
+                                  Instant timestamp) {
+        long start = addFuelTimer.start();
+        try {
+            Car car = carRepository.findById(carId);
+            if (car == null) {
+                throw new CarNotFoundException("Car with ID " + carId + " not found");
+            }
+
+            // Validate input
+            String error = validateFuelValues(milliliters, priceMinorUnits, odometer);
+            if (error != null) {
+                throw new ValidationException(error);
+            }
+
+            // Check and append under the car's monitor, so the odometer check is linearizable
+            // with every other append to this car; appends to other cars never contend
+            synchronized (car) {
+                FuelTotals totals = car.getFuelTotals();
+                if (totals.getEntryCount() > 0) {
+                    error = validateOdometer(odometer, maxOdometer(totals));
+                    if (error != null) {
+                        throw new ValidationException(error);
+                    }
+                }
+
+                FuelEntry fuelEntry = new FuelEntry(milliliters, priceMinorUnits, odometer);
+                fuelEntry.setTimestamp(timestamp != null ? timestamp : Instant.now());
+                carRepository.addFuelEntry(car, fuelEntry);
+                fuelStatsCache.invalidate(carId);
+                return fuelEntry;
+            }
+        } finally {
+            addFuelTimer.stop(start);
         }
+    }
 
-        List<FuelEntry> fuelEntries = car.getFuelEntries();
-        
-        if (fuelEntries.isEmpty()) {
-            return new FuelStats(0.0, 0.0, 0.0);
+    /**
+     * Add a batch of fuel entries to one car.
+     * Items are validated in order, each odometer reading against the highest one
+     * accepted before it, and all accepted entries are appended in one critical section
+     */
+    public FuelBatchResult addFuelEntries(Long carId, List<AddFuelRequest> requests) {
+        long start = addFuelBatchTimer.start();
+        try {
+            validateBatchSize(requests);
+            Car car = carRepository.findById(carId);
+            if (car == null) {
+                throw new CarNotFoundException("Car with ID " + carId + " not found");
+            }
+
+            FuelBatchResult.Item[] results = new FuelBatchResult.Item[requests.size()];
+            List<Integer> indices = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                indices.add(i);
+            }
+            applyFuelBatch(car, requests, indices, results);
+            return new FuelBatchResult(Arrays.asList(results));
+        } finally {
+            addFuelBatchTimer.stop(start);
         }
+    }
 
-        Double totalFuel = fuelEntries.stream()
-                .filter(e -> e.getLiters() != null)
-                .mapToDouble(FuelEntry::getLiters)
-                .sum();
+    /**
+     * Add fuel entries for any number of cars.
+     * Items are grouped by car and each group is applied as in {@link #addFuelEntries};
+     * items for unknown cars are rejected individually
+     */
+    public FuelBatchResult addFuelEntriesBulk(List<BulkFuelRequest> requests) {
+        long start = addFuelBatchTimer.start();
+        try {
+            validateBatchSize(requests);
 
-        Double totalCost = fuelEntries.stream()
-                .filter(e -> e.getPrice() != null)
-                .mapToDouble(FuelEntry::getPrice)
-                .sum();
+            FuelBatchResult.Item[] results = new FuelBatchResult.Item[requests.size()];
+            Map<Long, List<Integer>> indicesByCar = new LinkedHashMap<>();
+            for (int i = 0; i < requests.size(); i++) {
+                BulkFuelRequest request = requests.get(i);
+                if (request == null || request.getCarId() == null) {
+                    results[i] = FuelBatchResult.Item.rejected(i, null, "Car ID cannot be null");
+                } else {
+                    indicesByCar.computeIfAbsent(request.getCarId(), id -> new ArrayList<>()).add(i);
+                }
+            }
 
-        Double averageConsumption = 0.0;
-        if (fuelEntries.size() >= 2) {
-            List<FuelEntry> sortedEntries = fuelEntries.stream()
-                    .filter(e -> e.getOdometer() != null)
-                    .sorted((e1, e2) -> Integer.compare(e1.getOdometer(), e2.getOdometer()))
-                    .toList();
-
-            if (sortedEntries.size() >= 2) {
-                Integer firstOdometer = sortedEntries.get(0).getOdometer();
-                Integer lastOdometer = sortedEntries.get(sortedEntries.size() - 1).getOdometer();
-                
-                if (firstOdometer != null && lastOdometer != null) {
-                    Integer totalDistance = lastOdometer - firstOdometer;
-                    if (totalDistance > 0) {
-                        averageConsumption = (totalFuel / totalDistance) * 100;
+            for (Map.Entry<Long, List<Integer>> group : indicesByCar.entrySet()) {
+                Long carId = group.getKey();
+                Car car = carRepository.findById(carId);
+                try {
+                    if (car == null) {
+                        throw new CarNotFoundException("Car with ID " + carId + " not found");
+                    }
+                    applyFuelBatch(car, requests, group.getValue(), results);
+                } catch (CarNotFoundException e) {
+                    for (int index : group.getValue()) {
+                        results[index] = FuelBatchResult.Item.rejected(index, carId, e.getMessage());
+                    }
+                }
+            }
+            return new FuelBatchResult(Arrays.asList(results));
+        } finally {
+            addFuelBatchTimer.stop(start);
+        }
+    }
+
+    private void validateBatchSize(List<?> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidationException("Batch cannot be empty");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch cannot contain more than " + MAX_BATCH_SIZE + " entries");
+        }
+    }
+
+    /**
+     * Validate the requests at the given indices in one pass and append the valid ones to the car,
+     * holding the car's monitor throughout so no other append can interleave.
+     * Fills results at those indices
+     */
+    private void applyFuelBatch(Car car, List<? extends AddFuelRequest> requests, List<Integer> indices,
+                                FuelBatchResult.Item[] results) {
+        Instant now = Instant.now();
+        synchronized (car) {
+            FuelTotals totals = car.getFuelTotals();
+            int maxOdometer = maxOdometer(totals);
+            List<FuelEntry> accepted = new ArrayList<>(indices.size());
+            List<Integer> acceptedIndices = new ArrayList<>(indices.size());
+
+            for (int index : indices) {
+                AddFuelRequest request = requests.get(index);
+                String error;
+                if (request == null) {
+                    error = "Fuel entry cannot be null";
+                } else {
+                    Long milliliters = request.getLiters() != null ? FixedPoint.toMilliliters(request.getLiters()) : null;
+                    Long priceMinorUnits = request.getPrice() != null ? FixedPoint.toMinorUnits(request.getPrice()) : null;
+                    error = validateFuelValues(milliliters, priceMinorUnits, request.getOdometer());
+                    if (error == null) {
+                        error = validateOdometer(request.getOdometer(), maxOdometer);
+                    }
+                    if (error == null) {
+                        maxOdometer = request.getOdometer();
+                        FuelEntry fuelEntry = new FuelEntry(milliliters, priceMinorUnits, request.getOdometer());
+                        fuelEntry.setTimestamp(request.getTimestamp() != null ? request.getTimestamp() : now);
+                        accepted.add(fuelEntry);
+                        acceptedIndices.add(index);
+                        continue;
                     }
                 }
+                results[index] = FuelBatchResult.Item.rejected(index, car.getId(), error);
+            }
+
+            if (!accepted.isEmpty()) {
+                carRepository.addFuelEntries(car, accepted);
+                fuelStatsCache.invalidate(car.getId());
+            }
+            for (int i = 0; i < accepted.size(); i++) {
+                int index = acceptedIndices.get(i);
+                results[index] = FuelBatchResult.Item.accepted(index, car.getId(), accepted.get(i));
             }
         }
+    }
 
-        return new FuelStats(totalFuel, totalCost, averageConsumption);
+    /**
+     * Check liters, price and odometer of a fuel entry; returns the error message or null if valid.
+     * The single, batch and bulk endpoints all rely on this check, so it enforces every
+     * {@link AddFuelRequest} constraint on the rounded values
+     */
+    private static String validateFuelValues(Long milliliters, Long priceMinorUnits, Integer odometer) {
+        if (milliliters == null || milliliters <= 0) {
+            return "Liters must be a positive number";
+        }
+        if (milliliters > FixedPoint.MAX_MILLILITERS) {
+            return "Liters cannot exceed " + FixedPoint.MAX_MILLILITERS / FixedPoint.MILLILITERS_PER_LITER;
+        }
+        if (priceMinorUnits == null || priceMinorUnits <= 0) {
+            return "Price must be a positive number";
+        }
+        if (priceMinorUnits > FixedPoint.MAX_MINOR_UNITS) {
+            return "Price cannot exceed " + FixedPoint.MAX_MINOR_UNITS / FixedPoint.MINOR_UNITS_PER_UNIT;
+        }
+        if (odometer == null || odometer < 0) {
+            return "Odometer must be a non-negative number";
+        }
+        return null;
+    }
+
+    /**
+     * Check that an odometer reading does not go below the previous maximum; returns the error message or null
+     */
+    private static String validateOdometer(int odometer, int maxOdometer) {
+        if (odometer < maxOdometer) {
+            return String.format("Odometer reading (%d) cannot be less than previous maximum (%d)",
+                odometer, maxOdometer);
+        }
+        return null;
+    }
+
+    private static int maxOdometer(FuelTotals totals) {
+        return totals.getOdometerCount() > 0 ? totals.getMaxOdometer() : 0;
+    }
+
+    /**
+     * Calculate fuel statistics for a car
+     */
+    public FuelStats getFuelStats(Long carId) {
+        long start = statsTimer.start();
+        try {
+            Car car = carRepository.findById(carId);
+            if (car == null) {
+                throw new CarNotFoundException("Car with ID " + carId + " not found");
+            }
+
+            return toFuelStats(car.getFuelTotals());
+        } finally {
+            statsTimer.stop(start);
+        }
+    }
+
+    /**
+     * Serialized full-history stats response for the car, from the stats cache while the car is
+     * unchanged. The entry's version is read before the stats, so it never claims newer data.
+     * Concurrent misses for the same car share one computation
+     */
+    public FuelStatsCache.Entry getFuelStatsResponse(Car car) {
+        long start = statsTimer.start();
+        try {
+            long version = car.getVersion();
+            return fuelStatsCache.getOrCompute(car.getId(), version, () -> toFuelStats(car.getFuelTotals()));
+        } finally {
+            statsTimer.stop(start);
+        }
+    }
+
+    /**
+     * Calculate fuel statistics for a car over fill-ups between from and to
+     * (inclusive, UTC dates; a null bound is open), answered from the daily and monthly rollups.
+     * Average consumption is the fuel used in the range over the distance driven in it
+     */
+    public FuelStats getFuelStats(Long carId, LocalDate from, LocalDate to) {
+        long start = statsTimer.start();
+        try {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new ValidationException("'from' date cannot be after 'to' date");
+            }
+            Car car = carRepository.findById(carId);
+            if (car == null) {
+                throw new CarNotFoundException("Car with ID " + carId + " not found");
+            }
+
+            FuelRollups.Range range = car.sumFuelRollups(from, to);
+            Double averageConsumption = FixedPoint.litersPer100Km(range.getMilliliters(), range.getDistance());
+            return new FuelStats(range.getMilliliters(), range.getCostMinorUnits(), averageConsumption);
+        } finally {
+            statsTimer.stop(start);
+        }
+    }
+
+    /**
+     * Calculate fuel statistics for a car over fill-ups with odometer readings between
+     * fromOdometer and toOdometer (inclusive; a null bound is open), in O(log n) from the fuel history's running totals.
+     * Average consumption is computed as for the whole history, over the entries in the range
+     */
+    public FuelStats getFuelStatsByOdometer(Long carId, Integer fromOdometer, Integer toOdometer) {
+        long start = statsTimer.start();
+        try {
+            if (fromOdometer != null && toOdometer != null && fromOdometer > toOdometer) {
+                throw new ValidationException("'fromOdometer' cannot be greater than 'toOdometer'");
+            }
+            Car car = carRepository.findById(carId);
+            if (car == null) {
+                throw new CarNotFoundException("Car with ID " + carId + " not found");
+            }
+
+            FuelEntryStore.OdometerRange range = car.sumOdometerRange(
+                    fromOdometer != null ? fromOdometer : Integer.MIN_VALUE,
+                    toOdometer != null ? toOdometer : Integer.MAX_VALUE);
+            Double averageConsumption = 0.0;
+            int distance = range.getLastOdometer() - range.getFirstOdometer();
+            if (range.getCount() >= 2) {
+                averageConsumption = FixedPoint.litersPer100Km(range.getMilliliters(), distance);
+            }
+            return new FuelStats(range.getMilliliters(), range.getCostMinorUnits(), averageConsumption);
+        } finally {
+            statsTimer.stop(start);
+        }
+    }
+
+    /**
+     * Derive fuel statistics from a car's running totals
+     */
+    private FuelStats toFuelStats(FuelTotals totals) {
+        if (totals.getEntryCount() == 0) {
+            return new FuelStats(0L, 0L, 0.0);
+        }
+
+        Double averageConsumption = 0.0;
+        if (totals.getEntryCount() >= 2 && totals.getOdometerCount() >= 2) {
+            int totalDistance = totals.getMaxOdometer() - totals.getMinOdometer();
+            averageConsumption = FixedPoint.litersPer100Km(totals.getTotalMilliliters(), totalDistance);
+        }
+
+        return new FuelStats(totals.getTotalMilliliters(), totals.getTotalCostMinorUnits(), averageConsumption);
+    }
+
+    /**
+     * Calculate fuel statistics over the whole fleet.
+     * Large fleets are reduced in parallel on the common fork-join pool
+     */
+    public FleetStats getFleetStats() {
+        Stream<Car> cars = carRepository.streamAll();
+        if (carRepository.count() >= PARALLEL_FLEET_THRESHOLD) {
+            cars = cars.parallel();
+        }
+        FleetTotals totals = FleetTotals.of(cars);
+        return new FleetStats(totals.getCarCount(), totals.getTotalMilliliters(), totals.getTotalCostMinorUnits(),
+                totals.getAverageConsumption());
     }
 
     /**
@@ -200,12 +606,13 @@ public class CarService {
         // Validate input
         validateCarInput(brand, model, year);
 
-        // Update car properties
-        existingCar.setBrand(brand.trim());
-        existingCar.setModel(model.trim());
-        existingCar.setYear(year);
+        // Update car properties; the repository re-indexes brand/model/year and rejects duplicates
+        Car changes = new Car(brand.trim(), model.trim(), year);
+        changes.setId(id);
         
-        return carRepository.update(existingCar);
+        Car updated = carRepository.update(changes);
+        fuelStatsCache.invalidate(id);
+        return updated;
     }
 
     /**
@@ -217,6 +624,7 @@ public class CarService {
             throw new CarNotFoundException("Car with ID " + id + " not found");
         }
         carRepository.deleteById(id);
+        fuelStatsCache.invalidate(id);
     }
 }
 
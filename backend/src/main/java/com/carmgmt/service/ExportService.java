@@ -0,0 +1,139 @@
+package com.carmgmt.service;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FixedPoint;
+import com.carmgmt.model.FuelEntryStore;
+import com.carmgmt.repository.CarRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * Writes the whole dataset as newline-delimited JSON.
+ * <p>
+ * Cars are visited in ID order through the repository's weakly consistent iterator, and
+ * each car's monitor is held only long enough to read its fields and history size, so
+ * writers are never blocked for the duration of an export. Entries are written straight
+ * from the columnar history, so memory use does not depend on the size of the dataset.
+ * <p>
+ * Fuel entries are exported up to the repository's last assigned ID as read when the export
+ * starts. Entries appended later, even to cars not yet visited, are left for the next
+ * incremental export, so a {@code since} cursor never skips an entry.
+ */
+@Service
+public class ExportService {
+    private final CarRepository carRepository;
+
+    @Autowired
+    public ExportService(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    /**
+     * Write one "car" record per car followed by its "fuelEntry" records, then an "end" record.
+     * When sinceEntryId is given only fuel entries with a greater ID are written; every car is
+     * still written. The end record's lastFuelEntryId is the value to pass next time: the last
+     * fuel entry ID assigned when the export started, which bounds the entries written
+     */
+    public void exportNdjson(OutputStream out, JsonFactory jsonFactory, Long sinceEntryId) throws IOException {
+        long since = sinceEntryId != null ? sinceEntryId : Long.MIN_VALUE;
+        // Every entry up to here got its ID under its car's monitor, so it is visible once the
+        // loop below takes that monitor; later entries wait for the next export
+        long upTo = carRepository.lastFuelEntryId();
+        long carCount = 0;
+        long entryCount = 0;
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            // Records are separated by the newline written after each one, not Jackson's default space
+            generator.setRootValueSeparator(null);
+            for (Car car : carRepository.iterateAfter(null)) {
+                Long id;
+                String brand;
+                String model;
+                Integer year;
+                FuelEntryStore entries;
+                int size;
+                synchronized (car) {
+                    id = car.getId();
+                    brand = car.getBrand();
+                    model = car.getModel();
+                    year = car.getYear();
+                    entries = car.getFuelEntryStore();
+                    size = entries.size();
+                }
+
+                generator.writeStartObject();
+                generator.writeStringField("type", "car");
+                generator.writeNumberField("id", id);
+                generator.writeStringField("brand", brand);
+                generator.writeStringField("model", model);
+                if (year != null) {
+                    generator.writeNumberField("year", year);
+                } else {
+                    generator.writeNullField("year");
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                carCount++;
+
+                int end = entries.indexAfterId(upTo, size);
+                for (int i = entries.indexAfterId(since, end); i < end; i++) {
+                    writeFuelEntry(generator, id, entries, i);
+                    entryCount++;
+                }
+            }
+
+            generator.writeStartObject();
+            generator.writeStringField("type", "end");
+            generator.writeNumberField("cars", carCount);
+            generator.writeNumberField("fuelEntries", entryCount);
+            generator.writeNumberField("lastFuelEntryId", Math.max(upTo, sinceEntryId != null ? sinceEntryId : 0));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static void writeFuelEntry(JsonGenerator generator, Long carId, FuelEntryStore entries, int index)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "fuelEntry");
+        long entryId = entries.idAt(index);
+        if (entryId != FuelEntryStore.NO_ID) {
+            generator.writeNumberField("id", entryId);
+        } else {
+            generator.writeNullField("id");
+        }
+        generator.writeNumberField("carId", carId);
+        long milliliters = entries.millilitersAt(index);
+        if (milliliters != FuelEntryStore.NO_AMOUNT) {
+            generator.writeNumberField("liters", FixedPoint.toLiters(milliliters));
+        } else {
+            generator.writeNullField("liters");
+        }
+        long price = entries.priceMinorUnitsAt(index);
+        if (price != FuelEntryStore.NO_AMOUNT) {
+            generator.writeNumberField("price", FixedPoint.toAmount(price));
+        } else {
+            generator.writeNullField("price");
+        }
+        int odometer = entries.odometerAt(index);
+        if (odometer != FuelEntryStore.NO_ODOMETER) {
+            generator.writeNumberField("odometer", odometer);
+        } else {
+            generator.writeNullField("odometer");
+        }
+        long timestamp = entries.timestampAt(index);
+        if (timestamp != FuelEntryStore.NO_TIMESTAMP) {
+            generator.writeStringField("timestamp", Instant.ofEpochMilli(timestamp).toString());
+        } else {
+            generator.writeNullField("timestamp");
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,343 @@
+package com.carmgmt.service;
+
+import com.carmgmt.dto.ApiResponse;
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.model.FuelStats;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of serialized full-history fuel stats responses, keyed by car ID.
+ * <p>
+ * Each entry holds the complete ApiResponse body as bytes, so a hit is written out without
+ * building a FuelStats, an ApiResponse or running Jackson; meta.timestamp is the time the
+ * stats were computed. The body's data slice is also addressable, for responses that
+ * embed several cars' stats. Entries remember the car version they were computed at and
+ * are ignored once the car has changed; {@link CarService} also invalidates them on every
+ * mutation, so deleted or updated cars do not hold memory.
+ * <p>
+ * The cache is split into segments, each an access-ordered LinkedHashMap behind its own
+ * lock that evicts its least recently used entry when full.
+ * <p>
+ * Misses are coalesced: while one caller computes a car's stats at some version, other
+ * callers missing on the same car and version wait for its result instead of computing
+ * and serializing the same response again. This keeps a burst of requests for a car that
+ * has just changed (a dashboard refresh right after a fill-up) down to one computation.
+ */
+@Component
+public class FuelStatsCache {
+    private static final int SEGMENTS = 16;
+    private static final byte[] BODY_PREFIX = ("{\"success\":true,\"message\":\"Fuel statistics retrieved successfully\","
+            + "\"errors\":[],\"data\":").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] META_FIELD = ",\"meta\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Segment[] segments;
+    private final boolean coalesce;
+    // At most one computation per car, tagged with the version it computes
+    private final ConcurrentHashMap<Long, Computation> computations = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public FuelStatsCache(ObjectMapper objectMapper, int maxEntries, MetricsRegistry metrics) {
+        this(objectMapper, maxEntries, true, metrics);
+    }
+
+    /**
+     * Cache holding at most maxEntries responses; 0 disables caching but still serializes
+     * (and coalesces, unless coalesce is false). Its counters are exported through the metrics registry.
+     */
+    @Autowired
+    public FuelStatsCache(ObjectMapper objectMapper,
+                          @Value("${carmgmt.cache.stats.max-entries:10000}") int maxEntries,
+                          @Value("${carmgmt.cache.stats.coalesce:true}") boolean coalesce,
+                          MetricsRegistry metrics) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("carmgmt.cache.stats.max-entries cannot be negative");
+        }
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.coalesce = coalesce;
+        this.segments = new Segment[SEGMENTS];
+        int segmentCapacity = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        metrics.functionCounter("carmgmt_stats_cache_hits_total", "Fuel stats cache hits", hits::sum);
+        metrics.functionCounter("carmgmt_stats_cache_misses_total", "Fuel stats cache misses", misses::sum);
+        metrics.functionCounter("carmgmt_stats_cache_coalesced_total",
+                "Fuel stats cache misses served by another caller's computation", coalesced::sum);
+        metrics.functionCounter("carmgmt_stats_cache_evictions_total",
+                "Fuel stats cache entries evicted to stay within max-entries", evictions::sum);
+        metrics.functionCounter("carmgmt_stats_cache_invalidations_total",
+                "Fuel stats cache entries dropped because their car changed", invalidations::sum);
+        metrics.gauge("carmgmt_stats_cache_entries", "Fuel stats responses currently cached", this::size);
+    }
+
+    /**
+     * A cache that never stores anything
+     */
+    public static FuelStatsCache disabled() {
+        return new FuelStatsCache(new ObjectMapper(), 0, MetricsRegistry.disabled());
+    }
+
+    /**
+     * Cached response for the car at exactly this version, or null
+     */
+    public Entry get(Long carId, long version) {
+        Entry entry = maxEntries == 0 ? null : segmentFor(carId).get(carId);
+        if (entry != null && entry.version == version) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Serialize the stats computed at the given car version and cache them
+     */
+    public Entry put(Long carId, long version, FuelStats stats) {
+        Entry entry = serialize(version, stats);
+        if (maxEntries > 0) {
+            segmentFor(carId).put(carId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Cached response for the car at exactly this version, computing and caching it on a miss.
+     * Concurrent misses for the same car and version share one computation; a failure
+     * is rethrown to every caller that waited for it
+     */
+    public Entry getOrCompute(Long carId, long version, Supplier<FuelStats> stats) {
+        Entry entry = get(carId, version);
+        if (entry != null) {
+            return entry;
+        }
+        if (!coalesce) {
+            return put(carId, version, stats.get());
+        }
+
+        Computation mine = new Computation(version);
+        Computation current = computations.putIfAbsent(carId, mine);
+        if (current != null && current.version == version) {
+            coalesced.increment();
+            return current.join();
+        }
+        // A computation for an older version is replaced; one for a newer version is left
+        // alone and this caller computes by itself, so no caller waits for the wrong version
+        if (current != null && (current.version > version || !computations.replace(carId, current, mine))) {
+            return put(carId, version, stats.get());
+        }
+        try {
+            // Another caller may have finished this version between the lookup and registering
+            entry = maxEntries == 0 ? null : segmentFor(carId).get(carId);
+            if (entry == null || entry.version != version) {
+                entry = put(carId, version, stats.get());
+            }
+            mine.result.complete(entry);
+            return entry;
+        } catch (RuntimeException | Error e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            computations.remove(carId, mine);
+        }
+    }
+
+    /**
+     * Drop the car's entry, if any
+     */
+    public void invalidate(Long carId) {
+        if (maxEntries > 0 && segmentFor(carId).remove(carId)) {
+            invalidations.increment();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public boolean isCoalescing() {
+        return coalesce;
+    }
+
+    /**
+     * Number of cached responses
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(Long carId) {
+        int hash = carId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private Entry serialize(long version, FuelStats stats) {
+        try {
+            byte[] data = objectMapper.writeValueAsBytes(stats);
+            byte[] meta = objectMapper.writeValueAsBytes(new ApiResponse.Meta());
+            byte[] body = new byte[BODY_PREFIX.length + data.length + META_FIELD.length + meta.length + 1];
+            int position = 0;
+            System.arraycopy(BODY_PREFIX, 0, body, position, BODY_PREFIX.length);
+            position += BODY_PREFIX.length;
+            System.arraycopy(data, 0, body, position, data.length);
+            position += data.length;
+            System.arraycopy(META_FIELD, 0, body, position, META_FIELD.length);
+            position += META_FIELD.length;
+            System.arraycopy(meta, 0, body, position, meta.length);
+            body[body.length - 1] = '}';
+            return new Entry(version, body, BODY_PREFIX.length, data.length);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A serialized stats response and the car version it reflects
+     */
+    public static final class Entry {
+        private final long version;
+        private final byte[] body;
+        private final int dataOffset;
+        private final int dataLength;
+
+        private Entry(long version, byte[] body, int dataOffset, int dataLength) {
+            this.version = version;
+            this.body = body;
+            this.dataOffset = dataOffset;
+            this.dataLength = dataLength;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * The complete ApiResponse JSON; must not be modified
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * Offset of the serialized FuelStats (the data field) within the body
+         */
+        public int getDataOffset() {
+            return dataOffset;
+        }
+
+        public int getDataLength() {
+            return dataLength;
+        }
+    }
+
+    /**
+     * A stats computation in progress, which callers missing on the same version wait for
+     */
+    private static final class Computation {
+        private final long version;
+        private final CompletableFuture<Entry> result = new CompletableFuture<>();
+
+        Computation(long version) {
+            this.version = version;
+        }
+
+        Entry join() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * One LRU segment, guarded by its own monitor
+     */
+    private final class Segment {
+        private final Map<Long, Entry> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Entry get(Long carId) {
+            return entries.get(carId);
+        }
+
+        synchronized void put(Long carId, Entry entry) {
+            // Never replace newer stats with older ones computed by a slower request
+            Entry existing = entries.get(carId);
+            if (existing == null || existing.version <= entry.version) {
+                entries.put(carId, entry);
+            }
+        }
+
+        synchronized boolean remove(Long carId) {
+            return entries.remove(carId) != null;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
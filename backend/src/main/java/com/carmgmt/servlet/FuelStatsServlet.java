@@ -2,9 +2,18 @@ package com.carmgmt.servlet;
 
 import com.carmgmt.dto.ApiResponse;
 import com.carmgmt.exception.CarNotFoundException;
-import com.carmgmt.model.FuelStats;
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.metrics.OperationTimer;
+import com.carmgmt.model.Car;
 import com.carmgmt.service.CarService;
+import com.carmgmt.service.FuelStatsCache;
+import com.carmgmt.web.ETags;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -12,70 +21,379 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * Servlet for fuel statistics endpoint
  * GET /servlet/fuel-stats?carId={id}
+ * GET /servlet/fuel-stats?carId={id}&carId={id}... or ?carId={id},{id},...
+ * <p>
+ * A single car ID returns its stats as before; several return a JSON array with one item
+ * per ID, so a dashboard can poll many cars in one round trip. The response is written
+ * asynchronously with a non-blocking {@link WriteListener}: the container thread is released
+ * once the stats are looked up, and the body is assembled in chunks in a pooled byte buffer that
+ * is handed to the output stream whenever it can accept more. The buffer is only refilled
+ * once the stream reports the previous chunk written. Each car's stats come as
+ * pre-serialized bytes from the {@link FuelStatsCache}, looked up before the request goes
+ * async, so the writer never waits on a stats computation another request is running.
+ * <p>
+ * Responses carry a weak ETag built from the versions of the requested cars; a matching
+ * If-None-Match is answered with 304 before any stats are computed or serialized.
+ * <p>
+ * Each request is timed until its last byte is handed to the container.
  */
 @Component
 public class FuelStatsServlet extends HttpServlet {
+    private static final int MAX_CAR_IDS = 1000;
+    private static final byte[] ARRAY_PREFIX = ("{\"success\":true,\"message\":\"Fuel statistics retrieved successfully\","
+            + "\"errors\":[],\"data\":[").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] META_FIELD = "],\"meta\":".getBytes(StandardCharsets.UTF_8);
+    private static final long ASYNC_TIMEOUT_MILLIS = 30_000;
+    // Bytes serialized before they are handed to the output stream
+    private static final int CHUNK_BYTES = 8192;
+    private static final int POOLED_BUFFERS = 64;
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
     private final CarService carService;
     private final ObjectMapper objectMapper;
+    private final OperationTimer statsTimer;
+    private final BlockingQueue<ChunkBuffer> bufferPool = new ArrayBlockingQueue<>(POOLED_BUFFERS);
 
     @Autowired
-    public FuelStatsServlet(CarService carService) {
+    public FuelStatsServlet(CarService carService, MetricsRegistry metrics) {
         this.carService = carService;
         this.objectMapper = new ObjectMapper();
+        this.statsTimer = metrics.timer(MetricsRegistry.SERVLET, "stats");
     }
 
     /**
      * Handle GET request
      */
     @Override
-    protected void doGet(HttpServletRequest request, HttpServletResponse response) 
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long start = statsTimer.start();
+        boolean async = false;
+        try {
+            async = serve(request, response, start);
+        } finally {
+            // An async response is timed by its writer
+            if (!async) {
+                statsTimer.stop(start);
+            }
+        }
+    }
+
+    /**
+     * Answer the request; returns true once the body is being written asynchronously
+     */
+    private boolean serve(HttpServletRequest request, HttpServletResponse response, long start)
             throws IOException {
-        
-        String carIdParam = request.getParameter("carId");
-        
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
-        
-        PrintWriter out = response.getWriter();
-        
-        if (carIdParam == null || carIdParam.isEmpty()) {
-            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-            ApiResponse<FuelStats> errorResponse = ApiResponse.error("carId parameter is required");
-            String errorJson = objectMapper.writeValueAsString(errorResponse);
-            out.print(errorJson);
-            out.flush();
-            return;
-        }
-        
-        try {
-            Long carId = Long.parseLong(carIdParam);
-            FuelStats stats = carService.getFuelStats(carId);
-            
-            response.setStatus(HttpServletResponse.SC_OK);
-            ApiResponse<FuelStats> apiResponse = ApiResponse.success("Fuel statistics retrieved successfully", stats);
-            String jsonResponse = objectMapper.writeValueAsString(apiResponse);
-            out.print(jsonResponse);
-            out.flush();
-            
-        } catch (NumberFormatException e) {
-            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-            ApiResponse<FuelStats> errorResponse = ApiResponse.error("Invalid carId format: " + carIdParam);
-            String errorJson = objectMapper.writeValueAsString(errorResponse);
-            out.print(errorJson);
-            out.flush();
-            
-        } catch (CarNotFoundException e) {
-            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-            ApiResponse<FuelStats> errorResponse = ApiResponse.error(e.getMessage());
-            String errorJson = objectMapper.writeValueAsString(errorResponse);
-            out.print(errorJson);
-            out.flush();
+
+        String[] carIdParams = request.getParameterValues("carId");
+        if (carIdParams == null || carIdParams.length == 0 || carIdParams[0].isEmpty()) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "carId parameter is required");
+            return false;
         }
+        boolean multiple = carIdParams.length > 1 || carIdParams[0].indexOf(',') >= 0;
+
+        List<Long> carIds = new ArrayList<>();
+        for (String param : carIdParams) {
+            for (String value : param.split(",")) {
+                try {
+                    carIds.add(Long.parseLong(value.trim()));
+                } catch (NumberFormatException e) {
+                    writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid carId format: " + value);
+                    return false;
+                }
+            }
+        }
+        if (carIds.size() > MAX_CAR_IDS) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST,
+                    "At most " + MAX_CAR_IDS + " carId values are allowed per request");
+            return false;
+        }
+
+        String etag;
+        StatsWriter writer;
+        if (multiple) {
+            // Look every car up once: its version goes into the tag, its cached stats into the body
+            Car[] cars = new Car[carIds.size()];
+            long hash = 0;
+            for (int i = 0; i < cars.length; i++) {
+                cars[i] = carService.findCarById(carIds.get(i));
+                hash = ETags.combine(hash, carIds.get(i), cars[i] != null ? cars[i].getVersion() : -1);
+            }
+            etag = ETags.ofCombined(hash);
+            if (ETags.matches(request.getHeader("If-None-Match"), etag)) {
+                return notModified(response, etag);
+            }
+            // Resolved before going async: a coalesced computation may block, which the writer must never do
+            FuelStatsCache.Entry[] entries = new FuelStatsCache.Entry[cars.length];
+            for (int i = 0; i < cars.length; i++) {
+                if (cars[i] != null) {
+                    entries[i] = carService.getFuelStatsResponse(cars[i]);
+                }
+            }
+            writer = new StatsWriter(carIds, entries, null);
+        } else {
+            Car car;
+            try {
+                car = carService.getCarById(carIds.get(0));
+            } catch (CarNotFoundException e) {
+                writeError(response, HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+                return false;
+            }
+            etag = ETags.of(car.getVersion());
+            if (ETags.matches(request.getHeader("If-None-Match"), etag)) {
+                return notModified(response, etag);
+            }
+            writer = new StatsWriter(null, null, carService.getFuelStatsResponse(car));
+        }
+        response.setHeader("ETag", etag);
+        response.setStatus(HttpServletResponse.SC_OK);
+        writer.start(request.startAsync(), response.getOutputStream(), start);
+        return true;
     }
-}
 
+    private boolean notModified(HttpServletResponse response, String etag) {
+        response.setHeader("ETag", etag);
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return false;
+    }
+
+    /**
+     * Write a small error response synchronously
+     */
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        byte[] body = objectMapper.writeValueAsBytes(ApiResponse.error(message));
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private ChunkBuffer acquireBuffer() {
+        ChunkBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : new ChunkBuffer();
+    }
+
+    private void releaseBuffer(ChunkBuffer buffer) {
+        buffer.reset();
+        if (buffer.capacity() <= MAX_POOLED_CAPACITY) {
+            bufferPool.offer(buffer);
+        }
+    }
+
+    /**
+     * Writes the response chunk by chunk whenever the output stream is ready,
+     * then completes the async request and returns its buffer to the pool
+     */
+    private final class StatsWriter implements WriteListener, AsyncListener {
+        // Array response: the requested IDs and their cached stats (null if the car was not found)
+        private final List<Long> carIds;
+        private final FuelStatsCache.Entry[] entries;
+        // Single-car response
+        private final FuelStatsCache.Entry entry;
+        private AsyncContext asyncContext;
+        private ServletOutputStream out;
+        private long start;
+        private ChunkBuffer buffer;
+        private int next = -1;
+        private boolean finished;
+        // The container may still hold the buffer's array until isReady() next returns true
+        private boolean writing;
+        private boolean released;
+
+        StatsWriter(List<Long> carIds, FuelStatsCache.Entry[] entries, FuelStatsCache.Entry entry) {
+            this.carIds = carIds;
+            this.entries = entries;
+            this.entry = entry;
+        }
+
+        void start(AsyncContext asyncContext, ServletOutputStream out, long start) {
+            this.asyncContext = asyncContext;
+            this.out = out;
+            this.start = start;
+            this.buffer = acquireBuffer();
+            asyncContext.setTimeout(ASYNC_TIMEOUT_MILLIS);
+            asyncContext.addListener(this);
+            out.setWriteListener(this);
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            // Completed outside the monitor, which a timeout on another thread may be waiting for
+            if (writeChunks()) {
+                asyncContext.complete();
+            }
+        }
+
+        /**
+         * Write chunks while the stream is ready; returns true once the response is done.
+         * Synchronized with release(), so the buffer is never touched after it is returned to the pool;
+         * every entry is resolved beforehand, so nothing here waits on a stats computation
+         */
+        private synchronized boolean writeChunks() throws IOException {
+            while (!released && out.isReady()) {
+                // isReady() returning true means the last chunk has been written out, so its bytes can be reused
+                writing = false;
+                if (finished) {
+                    return release();
+                }
+                if (entry != null) {
+                    // A cached body is written as is, without copying
+                    out.write(entry.getBody());
+                    finished = true;
+                    continue;
+                }
+                buffer.reset();
+                fillBuffer();
+                writing = true;
+                out.write(buffer.array(), 0, buffer.size());
+            }
+            return false;
+        }
+
+        /**
+         * Append the next chunk, at least one item, to the buffer
+         */
+        private void fillBuffer() throws IOException {
+            if (next < 0) {
+                buffer.write(ARRAY_PREFIX);
+                next = 0;
+            }
+            do {
+                if (next == carIds.size()) {
+                    buffer.write(META_FIELD);
+                    buffer.write(objectMapper.writeValueAsBytes(new ApiResponse.Meta()));
+                    buffer.write('}');
+                    finished = true;
+                    break;
+                }
+                writeItem(next++);
+            } while (buffer.size() < CHUNK_BYTES);
+        }
+
+        private void writeItem(int index) throws IOException {
+            Long carId = carIds.get(index);
+            if (index > 0) {
+                buffer.write(',');
+            }
+            buffer.writeAscii("{\"carId\":" + carId);
+            FuelStatsCache.Entry entry = entries[index];
+            if (entry != null) {
+                buffer.writeAscii(",\"stats\":");
+                buffer.write(entry.getBody(), entry.getDataOffset(), entry.getDataLength());
+            } else {
+                buffer.writeAscii(",\"error\":");
+                buffer.write(objectMapper.writeValueAsBytes("Car with ID " + carId + " not found"));
+            }
+            buffer.write('}');
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // The client went away; nothing more can be written
+            if (release()) {
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // The client stopped reading; give up on the rest of the body
+            if (release()) {
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        /**
+         * Return the buffer and stop the timer, once; returns true for the call that did,
+         * which is then the one to complete the async context if needed
+         */
+        private synchronized boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            // A buffer the container may still be writing from is left to the garbage collector
+            if (!writing) {
+                releaseBuffer(buffer);
+            }
+            statsTimer.stop(start);
+            return true;
+        }
+    }
+
+    /**
+     * Growable byte array a response is assembled in; pooled between requests
+     */
+    private static final class ChunkBuffer extends OutputStream {
+        private byte[] bytes = new byte[2 * CHUNK_BYTES];
+        private int size;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(size + 1);
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length) {
+            ensureCapacity(size + length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return bytes.length;
+        }
+
+        void writeAscii(String text) {
+            ensureCapacity(size + text.length());
+            for (int i = 0; i < text.length(); i++) {
+                bytes[size++] = (byte) text.charAt(i);
+            }
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+            }
+        }
+    }
+}
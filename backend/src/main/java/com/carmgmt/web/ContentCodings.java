@@ -0,0 +1,53 @@
+package com.carmgmt.web;
+
+import java.util.Locale;
+
+/**
+ * Content-coding negotiation from Accept-Encoding headers (RFC 9110, section 12.5.3)
+ */
+public final class ContentCodings {
+
+    private ContentCodings() {
+    }
+
+    /**
+     * True if the Accept-Encoding header value accepts the coding with a non-zero quality.
+     * An explicit entry for the coding wins over "*"; a coding the header does not mention is
+     * not accepted, and neither is anything when the header is missing
+     */
+    public static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+        double explicit = -1;
+        double wildcard = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (name.equals(coding)) {
+                explicit = Math.max(explicit, quality);
+            } else if (name.equals("*")) {
+                wildcard = Math.max(wildcard, quality);
+            }
+        }
+        return (explicit >= 0 ? explicit : wildcard) > 0;
+    }
+
+    // The q parameter of a coding, 1 if absent and 0 if malformed
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            int equals = parts[i].indexOf('=');
+            if (equals > 0 && parts[i].substring(0, equals).trim().equalsIgnoreCase("q")) {
+                String value = parts[i].substring(equals + 1).trim();
+                try {
+                    double quality = Double.parseDouble(value);
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
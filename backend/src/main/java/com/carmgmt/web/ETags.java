@@ -0,0 +1,58 @@
+package com.carmgmt.web;
+
+/**
+ * Weak entity tags derived from car versions, shared by the controllers and servlets.
+ * <p>
+ * Versions restart at zero in every process, so each tag also carries an epoch fixed at
+ * startup; tags handed out before a restart never match afterwards. Tags are weak because
+ * responses embed a generation timestamp and are only semantically equivalent.
+ */
+public final class ETags {
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private ETags() {
+    }
+
+    /**
+     * Tag for a single version
+     */
+    public static String of(long version) {
+        return "W/\"" + Long.toString(version, 36) + '-' + EPOCH + '"';
+    }
+
+    /**
+     * Tag for a response built from several cars, given a hash of their IDs and versions
+     */
+    public static String ofCombined(long hash) {
+        return "W/\"m" + Long.toUnsignedString(hash, 36) + '-' + EPOCH + '"';
+    }
+
+    /**
+     * Fold one car's ID and version into a combined hash (start from 0)
+     */
+    public static long combine(long hash, long carId, long version) {
+        hash = (hash ^ carId) * 0x100000001B3L;
+        return (hash ^ version) * 0x100000001B3L;
+    }
+
+    /**
+     * True if an If-None-Match header value (a list of tags or "*") matches the tag, using weak comparison
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
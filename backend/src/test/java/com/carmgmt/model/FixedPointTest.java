@@ -0,0 +1,56 @@
+package com.carmgmt.model;
+
+import com.carmgmt.dto.AddFuelRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class FixedPointTest {
+
+    @Test
+    void roundsHalfUpOnce() {
+        assertThat(FixedPoint.toMilliliters(new BigDecimal("40.0005"))).isEqualTo(40_001L);
+        assertThat(FixedPoint.toMilliliters(new BigDecimal("40.0004"))).isEqualTo(40_000L);
+        assertThat(FixedPoint.toMinorUnits(new BigDecimal("1.995"))).isEqualTo(200L);
+        assertThat(FixedPoint.toMinorUnits(new BigDecimal("-1.995"))).isEqualTo(-200L);
+        assertThat(FixedPoint.toMilliliters(new BigDecimal("1E2"))).isEqualTo(100_000L);
+        assertThat(FixedPoint.toMilliliters(new BigDecimal("0.0005"))).isEqualTo(1L);
+        assertThat(FixedPoint.toMilliliters(new BigDecimal("0.00049"))).isZero();
+        assertThat(FixedPoint.toMilliliters(BigDecimal.ZERO)).isZero();
+    }
+
+    @Test
+    void saturatesAtTheEdgeOfLong() {
+        assertThat(FixedPoint.toMinorUnits(new BigDecimal("92233720368547758.07"))).isEqualTo(Long.MAX_VALUE);
+        assertThat(FixedPoint.toMinorUnits(new BigDecimal("92233720368547758.08"))).isEqualTo(Long.MAX_VALUE);
+        assertThat(FixedPoint.toMinorUnits(new BigDecimal("99999999999999999.99"))).isEqualTo(Long.MAX_VALUE);
+        assertThat(FixedPoint.toMinorUnits(new BigDecimal("-1E17"))).isEqualTo(Long.MIN_VALUE + 1);
+    }
+
+    @Test
+    void boundsHugeExponentsWithoutExpandingThem() {
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertThat(FixedPoint.toMilliliters(new BigDecimal("1E999999999"))).isEqualTo(Long.MAX_VALUE);
+            assertThat(FixedPoint.toMilliliters(new BigDecimal("1E99999999"))).isEqualTo(Long.MAX_VALUE);
+            assertThat(FixedPoint.toMinorUnits(new BigDecimal("-1E9999999"))).isEqualTo(Long.MIN_VALUE + 1);
+            assertThat(FixedPoint.toMilliliters(new BigDecimal("1E-999999999"))).isZero();
+            assertThat(FixedPoint.toMinorUnits(new BigDecimal("-1E-99999999"))).isZero();
+        });
+    }
+
+    @Test
+    void boundsHugeExponentsFromJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            AddFuelRequest request = mapper.readValue(
+                    "{\"liters\":1E999999999,\"price\":1E9999999,\"odometer\":1}", AddFuelRequest.class);
+            assertThat(FixedPoint.toMilliliters(request.getLiters())).isEqualTo(Long.MAX_VALUE);
+            assertThat(FixedPoint.toMinorUnits(request.getPrice())).isEqualTo(Long.MAX_VALUE);
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.carmgmt.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuelEntryStoreTest {
+
+    @Test
+    void sumsOdometerRangeFromRunningTotals() {
+        FuelEntryStore store = new FuelEntryStore();
+        for (int i = 0; i < 10; i++) {
+            store.append(new FuelEntry(1_000L * (i + 1), 100L * (i + 1), i * 100));
+        }
+        assertThat(store.isOdometerSorted()).isTrue();
+
+        FuelEntryStore.OdometerRange range = store.sumByOdometer(150, 500);
+        assertThat(range.getCount()).isEqualTo(4);
+        assertThat(range.getMilliliters()).isEqualTo(3_000L + 4_000L + 5_000L + 6_000L);
+        assertThat(range.getCostMinorUnits()).isEqualTo(300L + 400L + 500L + 600L);
+        assertThat(range.getFirstOdometer()).isEqualTo(200);
+        assertThat(range.getLastOdometer()).isEqualTo(500);
+
+        assertThat(store.sumByOdometer(Integer.MIN_VALUE, Integer.MAX_VALUE).getMilliliters()).isEqualTo(55_000L);
+        assertThat(store.sumByOdometer(901, 2_000).getCount()).isZero();
+        assertThat(store.sumByOdometer(500, 400).getCount()).isZero();
+    }
+
+    @Test
+    void scansOdometerRangeOfUnsortedHistory() {
+        FuelEntryStore store = new FuelEntryStore();
+        store.append(new FuelEntry(1_000L, 100L, 300));
+        store.append(new FuelEntry(2_000L, null, 100));
+        store.append(new FuelEntry(4_000L, 400L, null));
+        store.append(new FuelEntry(8_000L, 800L, 200));
+        assertThat(store.isOdometerSorted()).isFalse();
+
+        FuelEntryStore.OdometerRange range = store.sumByOdometer(Integer.MIN_VALUE, 250);
+        assertThat(range.getCount()).isEqualTo(2);
+        assertThat(range.getMilliliters()).isEqualTo(10_000L);
+        assertThat(range.getCostMinorUnits()).isEqualTo(800L);
+        assertThat(range.getFirstOdometer()).isEqualTo(100);
+        assertThat(range.getLastOdometer()).isEqualTo(200);
+    }
+
+    @Test
+    void wrappedColumnsMatchAppendedOnes() {
+        long[] ids = {1, 2, 3, 0};
+        long[] timestamps = {10, 20, 30, 0};
+        long[] milliliters = {1_000, FuelEntryStore.NO_AMOUNT, 3_000, 0};
+        long[] prices = {100, 200, 300, 0};
+        int[] odometers = {100, 200, 300, 0};
+        FuelEntryStore store = FuelEntryStore.of(ids, timestamps, milliliters, prices, odometers, 3);
+
+        FuelEntryStore.OdometerRange range = store.sumByOdometer(200, 300);
+        assertThat(range.getCount()).isEqualTo(2);
+        assertThat(range.getMilliliters()).isEqualTo(3_000L);
+        assertThat(range.getCostMinorUnits()).isEqualTo(500L);
+
+        store.append(new FuelEntry(4_000L, 400L, 400));
+        store.append(new FuelEntry(5_000L, 500L, 500));
+        assertThat(store.sumByOdometer(0, 1_000).getMilliliters()).isEqualTo(13_000L);
+    }
+}
@@ -0,0 +1,91 @@
+package com.carmgmt.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuelTotalsTest {
+
+    @Test
+    void runningTotalsMatchRecomputation() {
+        Random random = new Random(42);
+        Car car = new Car("Toyota", "Corolla", 2020);
+        for (int round = 0; round < 200; round++) {
+            if (random.nextBoolean()) {
+                car.addFuelEntry(randomEntry(random));
+            } else {
+                List<FuelEntry> batch = new ArrayList<>();
+                for (int i = random.nextInt(5); i >= 0; i--) {
+                    batch.add(randomEntry(random));
+                }
+                car.addFuelEntries(batch);
+            }
+            assertMatchesRecomputation(car);
+        }
+    }
+
+    @Test
+    void replacedHistoryIsRecomputed() {
+        Car car = new Car("Toyota", "Corolla", 2020);
+        car.addFuelEntry(new FuelEntry(40_000L, 6_000L, 1_000));
+        car.setFuelEntries(List.of(
+                new FuelEntry(10_000L, 1_500L, 500),
+                new FuelEntry(null, 2_000L, null),
+                new FuelEntry(20_000L, null, 200)));
+
+        FuelTotals totals = car.getFuelTotals();
+        assertThat(totals.getEntryCount()).isEqualTo(3);
+        assertThat(totals.getOdometerCount()).isEqualTo(2);
+        assertThat(totals.getTotalMilliliters()).isEqualTo(30_000L);
+        assertThat(totals.getTotalCostMinorUnits()).isEqualTo(3_500L);
+        assertThat(totals.getMinOdometer()).isEqualTo(200);
+        assertThat(totals.getMaxOdometer()).isEqualTo(500);
+        assertMatchesRecomputation(car);
+    }
+
+    @Test
+    void emptyTotals() {
+        assertThat(FuelTotals.of(new FuelEntryStore()))
+                .usingRecursiveComparison().isEqualTo(FuelTotals.EMPTY);
+    }
+
+    // Missing values and out-of-order readings exercise every branch of plus()
+    private static FuelEntry randomEntry(Random random) {
+        Long milliliters = random.nextInt(10) == 0 ? null : 1L + random.nextInt(80_000);
+        Long price = random.nextInt(10) == 0 ? null : 1L + random.nextInt(20_000);
+        Integer odometer = random.nextInt(10) == 0 ? null : random.nextInt(500_000);
+        return new FuelEntry(milliliters, price, odometer);
+    }
+
+    private static void assertMatchesRecomputation(Car car) {
+        FuelTotals running = car.getFuelTotals();
+        assertThat(running).usingRecursiveComparison().isEqualTo(FuelTotals.of(car.getFuelEntryStore()));
+
+        long milliliters = 0;
+        long cost = 0;
+        int odometerCount = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (FuelEntry entry : car.getFuelEntries()) {
+            milliliters += entry.getMilliliters() != null ? entry.getMilliliters() : 0;
+            cost += entry.getPriceMinorUnits() != null ? entry.getPriceMinorUnits() : 0;
+            if (entry.getOdometer() != null) {
+                odometerCount++;
+                min = Math.min(min, entry.getOdometer());
+                max = Math.max(max, entry.getOdometer());
+            }
+        }
+        assertThat(running.getEntryCount()).isEqualTo(car.getFuelEntries().size());
+        assertThat(running.getTotalMilliliters()).isEqualTo(milliliters);
+        assertThat(running.getTotalCostMinorUnits()).isEqualTo(cost);
+        assertThat(running.getOdometerCount()).isEqualTo(odometerCount);
+        if (odometerCount > 0) {
+            assertThat(running.getMinOdometer()).isEqualTo(min);
+            assertThat(running.getMaxOdometer()).isEqualTo(max);
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.exception.CarNotFoundException;
+import com.carmgmt.exception.DuplicateCarException;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.model.FuelEntryStore;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Contract every {@link CarRepository} implementation must meet: ID assignment, case-insensitive
+ * duplicate detection, ordered listings, updates, deletes, fuel appends, behaviour under
+ * concurrent writers and readers, waiting for durability without blocking other callers, and
+ * recovery from the {@link MutationLog}.
+ * <p>
+ * Published in the backend test-jar. To check another backend, extend this class and
+ * implement {@link #createRepository()}; override {@link #createRepository(MutationLog)} too
+ * if the backend can record into a mutation log, otherwise the recovery test is skipped.
+ */
+public abstract class CarRepositoryContractTest {
+    private static final int THREADS = 8;
+    private static final int APPENDS_PER_THREAD = 2_000;
+
+    /**
+     * A new, empty repository that logs nothing; {@link CarRepository#recover()} is called by the test
+     */
+    protected abstract CarRepository createRepository();
+
+    /**
+     * A new, empty repository recording into the given log
+     */
+    protected CarRepository createRepository(MutationLog mutationLog) {
+        Assumptions.abort("Backend cannot record into a mutation log");
+        return null;
+    }
+
+    private CarRepository newRepository() {
+        CarRepository repository = createRepository();
+        repository.recover();
+        return repository;
+    }
+
+    @Test
+    void saveAssignsIncreasingIds() {
+        CarRepository repository = newRepository();
+        long previous = 0;
+        for (int c = 0; c < 3; c++) {
+            Car car = repository.save(new Car("Brand", "Model" + c, 2020));
+            assertThat(car.getId()).isGreaterThan(previous);
+            assertThat(repository.findById(car.getId())).isSameAs(car);
+            assertThat(repository.existsById(car.getId())).isTrue();
+            previous = car.getId();
+        }
+        assertThat(repository.count()).isEqualTo(3);
+        assertThat(repository.findById(previous + 1)).isNull();
+    }
+
+    @Test
+    void saveIfAbsentRejectsCaseInsensitiveDuplicates() {
+        CarRepository repository = newRepository();
+        Car first = new Car("Toyota", "Corolla", 2020);
+        assertThat(repository.saveIfAbsent(first)).isTrue();
+        assertThat(repository.saveIfAbsent(new Car("TOYOTA", "corolla", 2020))).isFalse();
+        assertThat(repository.saveIfAbsent(new Car("Toyota", "Corolla", 2021))).isTrue();
+        assertThat(repository.existsByBrandModelYear("toyota", "COROLLA", 2020)).isTrue();
+        assertThat(repository.findByBrandModelYear("toyota", "COROLLA", 2020)).containsSame(first);
+
+        // Cars without a year are never duplicates, and null parts never match
+        assertThat(repository.saveIfAbsent(new Car("Toyota", "Corolla", null))).isTrue();
+        assertThat(repository.saveIfAbsent(new Car("Toyota", "Corolla", null))).isTrue();
+        assertThat(repository.existsByBrandModelYear("Toyota", "Corolla", null)).isFalse();
+        assertThat(repository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void listingsAreOrderedById() {
+        CarRepository repository = newRepository();
+        List<Long> ids = new ArrayList<>();
+        for (int c = 0; c < 10; c++) {
+            ids.add(repository.save(new Car("Brand", "Model" + c, 2020)).getId());
+        }
+        repository.deleteById(ids.remove(4));
+
+        assertThat(ids(repository.findAll())).isEqualTo(ids);
+        assertThat(ids(repository.findAfter(null, 3))).isEqualTo(ids.subList(0, 3));
+        assertThat(ids(repository.findAfter(ids.get(2), 100))).isEqualTo(ids.subList(3, ids.size()));
+        assertThat(ids(repository.iterateAfter(ids.get(2)))).isEqualTo(ids.subList(3, ids.size()));
+        assertThat(repository.streamAll().count()).isEqualTo(ids.size());
+    }
+
+    @Test
+    void updateMovesDuplicateKey() {
+        CarRepository repository = newRepository();
+        Car a = repository.save(new Car("A", "X", 2020));
+        Car b = repository.save(new Car("B", "Y", 2021));
+
+        Car changes = new Car("A", "Z", 2020);
+        changes.setId(a.getId());
+        assertThat(repository.update(changes)).isSameAs(a);
+        assertThat(a.getModel()).isEqualTo("Z");
+        assertThat(repository.existsByBrandModelYear("A", "X", 2020)).isFalse();
+        assertThat(repository.existsByBrandModelYear("a", "z", 2020)).isTrue();
+
+        Car clash = new Car("a", "Z", 2020);
+        clash.setId(b.getId());
+        assertThatThrownBy(() -> repository.update(clash)).isInstanceOf(DuplicateCarException.class);
+        assertThat(b.getBrand()).isEqualTo("B");
+        assertThat(b.getModel()).isEqualTo("Y");
+        assertThat(repository.existsByBrandModelYear("B", "Y", 2021)).isTrue();
+
+        Car missing = new Car("C", "W", 2022);
+        missing.setId(b.getId() + 100);
+        assertThatThrownBy(() -> repository.update(missing)).isInstanceOf(CarNotFoundException.class);
+    }
+
+    @Test
+    void deleteRemovesCarEverywhere() {
+        CarRepository repository = newRepository();
+        Car car = repository.save(new Car("Brand", "Model", 2020));
+        Long id = car.getId();
+        assertThat(repository.deleteById(id)).isTrue();
+        assertThat(repository.deleteById(id)).isFalse();
+        assertThat(repository.findById(id)).isNull();
+        assertThat(repository.existsById(id)).isFalse();
+        assertThat(repository.count()).isZero();
+        assertThat(repository.existsByBrandModelYear("Brand", "Model", 2020)).isFalse();
+        assertThatThrownBy(() -> repository.addFuelEntry(car, new FuelEntry(1_000L, 100L, 0)))
+                .isInstanceOf(CarNotFoundException.class);
+        assertThat(repository.saveIfAbsent(new Car("Brand", "Model", 2020))).isTrue();
+        assertThat(repository.findAfter(null, 10)).hasSize(1);
+    }
+
+    @Test
+    void fuelEntryIdsIncreaseAcrossCars() {
+        CarRepository repository = newRepository();
+        Car first = repository.save(new Car("Brand", "First", 2020));
+        Car second = repository.save(new Car("Brand", "Second", 2020));
+        List<Long> ids = new ArrayList<>();
+        for (int e = 0; e < 5; e++) {
+            ids.add(repository.addFuelEntry(e % 2 == 0 ? first : second, new FuelEntry(40_000L, 150L, e * 100)).getId());
+        }
+        List<FuelEntry> batch = List.of(new FuelEntry(10_000L, 150L, 1000), new FuelEntry(20_000L, 150L, 1100));
+        for (FuelEntry entry : repository.addFuelEntries(first, batch)) {
+            ids.add(entry.getId());
+        }
+
+        assertThat(ids).doesNotContainNull().isSorted().doesNotHaveDuplicates();
+        assertThat(first.getFuelEntryStore().size()).isEqualTo(5);
+        assertThat(second.getFuelEntryStore().size()).isEqualTo(2);
+        assertThat(first.getFuelEntryStore().idAt(4)).isEqualTo(ids.get(6));
+        assertThat(repository.countFuelEntries()).isEqualTo(7);
+        assertThat(repository.lastFuelEntryId()).isEqualTo(ids.get(6));
+    }
+
+    @Test
+    void lastFuelEntryIdStartsAtZero() {
+        assertThat(newRepository().lastFuelEntryId()).isZero();
+    }
+
+    @Test
+    void concurrentSaveIfAbsentAdmitsOneCar() throws InterruptedException {
+        CarRepository repository = newRepository();
+        AtomicInteger saved = new AtomicInteger();
+        runConcurrently(t -> {
+            String brand = t % 2 == 0 ? "brand" : "BRAND";
+            if (repository.saveIfAbsent(new Car(brand, "Model", 2020))) {
+                saved.incrementAndGet();
+            }
+        });
+        assertThat(saved.get()).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentAppendsKeepEveryEntry() throws InterruptedException {
+        CarRepository repository = newRepository();
+        Car[] cars = new Car[4];
+        for (int c = 0; c < cars.length; c++) {
+            cars[c] = repository.save(new Car("Brand", "Model" + c, 2020));
+        }
+        runConcurrently(t -> {
+            for (int e = 0; e < APPENDS_PER_THREAD; e++) {
+                Car car = cars[(t + e) % cars.length];
+                if (e % 10 == 0) {
+                    repository.addFuelEntries(car, List.of(new FuelEntry(1_000L, 100L, 0), new FuelEntry(1_000L, 100L, 0)));
+                } else {
+                    repository.addFuelEntry(car, new FuelEntry(1_000L, 100L, 0));
+                }
+            }
+        });
+
+        assertThat(repository.countFuelEntries())
+                .isEqualTo((long) THREADS * (APPENDS_PER_THREAD + APPENDS_PER_THREAD / 10));
+        Set<Long> seen = new HashSet<>();
+        for (Car car : cars) {
+            FuelEntryStore store = car.getFuelEntryStore();
+            for (int i = 0; i < store.size(); i++) {
+                assertThat(seen.add(store.idAt(i))).as("entry ID %d is unique", store.idAt(i)).isTrue();
+                if (i > 0) {
+                    assertThat(store.idAt(i)).isGreaterThan(store.idAt(i - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsDoNotFailDuringWrites() throws InterruptedException {
+        CarRepository repository = newRepository();
+        for (int c = 0; c < 100; c++) {
+            repository.save(new Car("Brand", "Model" + c, 2020));
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int c = 0; c < 5_000; c++) {
+                    Car car = repository.save(new Car("Brand", "Churn" + c, 2020));
+                    repository.addFuelEntry(car, new FuelEntry(1_000L, 100L, 0));
+                    repository.deleteById(car.getId());
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                writing.set(false);
+            }
+        });
+        writer.start();
+        runConcurrently(t -> {
+            while (writing.get()) {
+                for (Car car : repository.iterateAfter(null)) {
+                    car.getId();
+                }
+                repository.findAfter(null, 50);
+                repository.streamAll().count();
+                repository.countFuelEntries();
+            }
+        });
+        writer.join();
+        assertThat(failure.get()).isNull();
+        assertThat(repository.count()).isEqualTo(100);
+    }
+
+    @Test
+    void recoversMutationsFromLog() {
+        RecordingLog log = new RecordingLog();
+        CarRepository original = createRepository(log);
+        original.recover();
+        Car kept = original.save(new Car("Kept", "Model", 2020));
+        Car renamed = original.save(new Car("Old", "Name", 2020));
+        Car deleted = original.save(new Car("Deleted", "Model", 2020));
+        original.addFuelEntry(kept, new FuelEntry(40_000L, 150L, 100));
+        original.addFuelEntries(kept, List.of(new FuelEntry(30_000L, 151L, 200), new FuelEntry(35_000L, 152L, 300)));
+        original.addFuelEntry(deleted, new FuelEntry(10_000L, 100L, 100));
+        Car changes = new Car("New", "Name", 2021);
+        changes.setId(renamed.getId());
+        original.update(changes);
+        original.deleteById(deleted.getId());
+
+        CarRepository recovered = createRepository(log.replay());
+        recovered.recover();
+        assertThat(ids(recovered.findAll())).isEqualTo(ids(original.findAll()));
+        Car restored = recovered.findById(kept.getId());
+        FuelEntryStore entries = restored.getFuelEntryStore();
+        assertThat(entries.size()).isEqualTo(3);
+        assertThat(entries.idAt(2)).isEqualTo(kept.getFuelEntryStore().idAt(2));
+        assertThat(entries.millilitersAt(1)).isEqualTo(30_000L);
+        assertThat(recovered.findById(renamed.getId()).getBrand()).isEqualTo("New");
+        assertThat(recovered.existsByBrandModelYear("new", "name", 2021)).isTrue();
+        assertThat(recovered.existsByBrandModelYear("Old", "Name", 2020)).isFalse();
+
+        assertThat(recovered.lastFuelEntryId()).isEqualTo(original.lastFuelEntryId());
+
+        // IDs are never reused
+        assertThat(recovered.save(new Car("Next", "Model", 2020)).getId()).isGreaterThan(deleted.getId());
+        assertThat(recovered.addFuelEntry(restored, new FuelEntry(1_000L, 100L, 400)).getId())
+                .isGreaterThan(deleted.getFuelEntryStore().idAt(0));
+    }
+
+    @Test
+    void durabilityWaitBlocksNoOtherCaller() throws InterruptedException {
+        RecordingLog log = new RecordingLog();
+        CarRepository repository = createRepository(log);
+        repository.recover();
+        Car car = repository.save(new Car("Brand", "Model", 2020));
+        Car other = repository.save(new Car("Brand", "Other", 2020));
+
+        // The next writer stalls waiting for durability, as behind a slow fsync
+        CountDownLatch release = new CountDownLatch(1);
+        log.holdNextWait(release);
+        Thread stalled = new Thread(() -> repository.addFuelEntry(car, new FuelEntry(40_000L, 150L, 100)));
+        stalled.start();
+        log.awaitHeld();
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                repository.addFuelEntry(car, new FuelEntry(40_000L, 150L, 200));
+                repository.addFuelEntry(other, new FuelEntry(40_000L, 150L, 100));
+                repository.save(new Car("Brand", "Third", 2020));
+                assertThat(repository.findById(car.getId())).isSameAs(car);
+                assertThat(repository.findAll()).hasSize(3);
+            });
+        } finally {
+            release.countDown();
+            stalled.join();
+        }
+        assertThat(car.getFuelEntryStore().size()).isEqualTo(2);
+    }
+
+    private static void runConcurrently(IntConsumer task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int index = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.accept(index);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError("worker failed", failure.get());
+        }
+    }
+
+    private static List<Long> ids(Iterable<Car> cars) {
+        List<Long> ids = new ArrayList<>();
+        for (Car car : cars) {
+            ids.add(car.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Log that keeps copies of the mutations in memory and replays them into another repository
+     */
+    private static final class RecordingLog implements MutationLog {
+        private final List<Consumer<State>> records = new ArrayList<>();
+        private final AtomicReference<CountDownLatch> held = new AtomicReference<>();
+        private final Semaphore holding = new Semaphore(0);
+
+        /**
+         * Make the next awaitDurable call block until release is counted down
+         */
+        void holdNextWait(CountDownLatch release) {
+            held.set(release);
+        }
+
+        /**
+         * Wait until a caller is blocked by holdNextWait
+         */
+        void awaitHeld() throws InterruptedException {
+            holding.acquire();
+        }
+
+        /**
+         * A log holding the same records, for a second repository to recover from
+         */
+        RecordingLog replay() {
+            RecordingLog copy = new RecordingLog();
+            synchronized (this) {
+                copy.records.addAll(records);
+            }
+            return copy;
+        }
+
+        @Override
+        public synchronized void open(State state) {
+            for (Consumer<State> record : records) {
+                record.accept(state);
+            }
+        }
+
+        @Override
+        public synchronized long logSave(Car car) {
+            Car copy = copy(car);
+            records.add(state -> state.restoreSave(copy(copy)));
+            return records.size();
+        }
+
+        @Override
+        public synchronized long logUpdate(Car car) {
+            Car copy = copy(car);
+            records.add(state -> state.restoreUpdate(copy(copy)));
+            return records.size();
+        }
+
+        @Override
+        public synchronized long logDelete(Long carId) {
+            records.add(state -> state.restoreDelete(carId));
+            return records.size();
+        }
+
+        @Override
+        public synchronized long logFuelEntry(Long carId, FuelEntry fuelEntry) {
+            FuelEntry copy = new FuelEntry(fuelEntry.getMilliliters(), fuelEntry.getPriceMinorUnits(), fuelEntry.getOdometer());
+            copy.setId(fuelEntry.getId());
+            copy.setTimestamp(fuelEntry.getTimestamp());
+            records.add(state -> state.restoreFuelEntry(carId, copy));
+            return records.size();
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+            CountDownLatch release = held.getAndSet(null);
+            if (release != null) {
+                holding.release();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static Car copy(Car car) {
+            Car copy = new Car(car.getBrand(), car.getModel(), car.getYear());
+            copy.setId(car.getId());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.carmgmt.repository;
+
+class ConcurrentCarRepositoryTest extends CarRepositoryContractTest {
+
+    @Override
+    protected CarRepository createRepository() {
+        return new ConcurrentCarRepository();
+    }
+
+    @Override
+    protected CarRepository createRepository(MutationLog mutationLog) {
+        return new ConcurrentCarRepository(mutationLog);
+    }
+}
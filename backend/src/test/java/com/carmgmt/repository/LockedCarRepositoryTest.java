@@ -0,0 +1,14 @@
+package com.carmgmt.repository;
+
+class LockedCarRepositoryTest extends CarRepositoryContractTest {
+
+    @Override
+    protected CarRepository createRepository() {
+        return new LockedCarRepository();
+    }
+
+    @Override
+    protected CarRepository createRepository(MutationLog mutationLog) {
+        return new LockedCarRepository(mutationLog);
+    }
+}
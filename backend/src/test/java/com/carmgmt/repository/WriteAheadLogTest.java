@@ -0,0 +1,233 @@
+package com.carmgmt.repository;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.model.FuelEntryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAheadLogTest {
+    private static final long NO_COMPACTION = Long.MAX_VALUE;
+    // Longer than any test takes, so the periodic flush never runs
+    private static final long SLOW_FLUSH_MILLIS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    @TempDir
+    Path crashed;
+
+    private final List<WriteAheadLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeLogs() {
+        opened.forEach(WriteAheadLog::close);
+    }
+
+    @Test
+    void replaysSegmentsAfterCrash() throws IOException {
+        CarRepository repository = open(directory, FsyncPolicy.ALWAYS, 10);
+        Car car = repository.save(new Car("Toyota", "Corolla", 2020));
+        repository.addFuelEntry(car, new FuelEntry(40_000L, 6_000L, 1_000));
+        repository.addFuelEntries(car, List.of(
+                new FuelEntry(35_500L, 5_100L, 1_500), new FuelEntry(38_250L, 5_400L, 2_000)));
+        Car other = repository.save(new Car("Honda", "Civic", 2019));
+        Car changes = new Car("Honda", "Accord", 2019);
+        changes.setId(other.getId());
+        repository.update(changes);
+        Car deleted = repository.save(new Car("Ford", "Focus", 2018));
+        repository.deleteById(deleted.getId());
+
+        CarRepository recovered = open(crashCopy(), FsyncPolicy.ALWAYS, 10);
+
+        assertThat(recovered.count()).isEqualTo(2);
+        assertThat(recovered.existsById(deleted.getId())).isFalse();
+        assertThat(recovered.findById(other.getId()).getModel()).isEqualTo("Accord");
+        assertSameEntries(recovered.findById(car.getId()), car);
+        assertThat(recovered.save(new Car("Kia", "Rio", 2021)).getId()).isGreaterThan(deleted.getId());
+        FuelEntry next = recovered.addFuelEntry(recovered.findById(car.getId()), new FuelEntry(1_000L, 100L, 2_500));
+        assertThat(next.getId()).isEqualTo(4L);
+    }
+
+    @Test
+    void truncatesTornTailRecord() throws IOException {
+        CarRepository repository = open(directory, FsyncPolicy.ALWAYS, 10);
+        Car car = repository.save(new Car("Toyota", "Corolla", 2020));
+        for (int i = 0; i < 5; i++) {
+            repository.addFuelEntry(car, new FuelEntry(40_000L, 6_000L, i * 100));
+        }
+
+        Path copy = crashCopy();
+        Path segment = lastSegment(copy);
+        long intactSize = Files.size(segment) - 3;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(intactSize);
+        }
+
+        CarRepository recovered = open(copy, FsyncPolicy.ALWAYS, 10);
+        Car restored = recovered.findById(car.getId());
+        assertThat(restored.getFuelEntryStore().size()).isEqualTo(4);
+        assertThat(Files.size(segment)).isLessThan(intactSize);
+
+        // Appends go to a new segment after the truncated one, which must now replay cleanly
+        recovered.addFuelEntry(restored, new FuelEntry(20_000L, 3_000L, 900));
+        CarRepository again = open(crashCopy(copy), FsyncPolicy.ALWAYS, 10);
+        assertSameEntries(again.findById(car.getId()), restored);
+    }
+
+    @Test
+    void dropsTailRecordWithBadChecksum() throws IOException {
+        CarRepository repository = open(directory, FsyncPolicy.ALWAYS, 10);
+        Car car = repository.save(new Car("Toyota", "Corolla", 2020));
+        repository.addFuelEntry(car, new FuelEntry(40_000L, 6_000L, 100));
+        repository.addFuelEntry(car, new FuelEntry(41_000L, 6_100L, 200));
+
+        Path copy = crashCopy();
+        Path segment = lastSegment(copy);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long last = channel.size() - 1;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, last);
+            b.put(0, (byte) ~b.get(0));
+            channel.write(b.rewind(), last);
+        }
+
+        CarRepository recovered = open(copy, FsyncPolicy.ALWAYS, 10);
+        FuelEntryStore entries = recovered.findById(car.getId()).getFuelEntryStore();
+        assertThat(entries.size()).isEqualTo(1);
+        assertThat(entries.odometerAt(0)).isEqualTo(100);
+    }
+
+    @Test
+    void recoversFromSnapshotAndLaterSegments() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory, FsyncPolicy.ALWAYS, 10, NO_COMPACTION, 0);
+        CarRepository repository = open(log);
+        Car car = repository.save(new Car("Toyota", "Corolla", 2020));
+        Car gone = repository.save(new Car("Ford", "Focus", 2018));
+        for (int i = 0; i < 3; i++) {
+            repository.addFuelEntry(car, new FuelEntry(40_000L, 6_000L, i * 100));
+        }
+
+        log.compact();
+        assertThat(segments(directory)).hasSize(1);
+        assertThat(directory.resolve("snapshot.bin")).exists();
+
+        repository.addFuelEntry(car, new FuelEntry(30_000L, 4_500L, 300));
+        repository.deleteById(gone.getId());
+
+        CarRepository recovered = open(crashCopy(), FsyncPolicy.ALWAYS, 10);
+        assertThat(recovered.count()).isEqualTo(1);
+        assertSameEntries(recovered.findById(car.getId()), car);
+        assertThat(recovered.save(new Car("Kia", "Rio", 2021)).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void groupCommitAcknowledgesOnlyDurableWrites() throws IOException {
+        CarRepository repository = open(directory, FsyncPolicy.GROUP, 200);
+        Car car = repository.save(new Car("Toyota", "Corolla", 2020));
+        repository.addFuelEntry(car, new FuelEntry(40_000L, 6_000L, 100));
+
+        // Crash right after the writes returned, whether or not a periodic flush has run yet
+        CarRepository recovered = open(crashCopy(), FsyncPolicy.ALWAYS, 10);
+        assertSameEntries(recovered.findById(car.getId()), car);
+    }
+
+    @Test
+    void groupCommitWaitReleasesTheCar() throws Exception {
+        CarRepository repository = open(directory, FsyncPolicy.GROUP, 2_000);
+        Car car = repository.save(new Car("Toyota", "Corolla", 2020));
+        Thread writer = new Thread(() -> repository.addFuelEntry(car, new FuelEntry(40_000L, 6_000L, 100)));
+        writer.start();
+        while (car.getFuelEntryStore().size() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // The entry is applied and its writer is waiting for the next fsync, without the car's monitor
+        long start = System.nanoTime();
+        synchronized (car) {
+            assertThat(writer.isAlive()).isTrue();
+        }
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        writer.join();
+    }
+
+    @Test
+    void osPolicyReturnsBeforeWriting() throws IOException {
+        CarRepository repository = open(directory, FsyncPolicy.OS, SLOW_FLUSH_MILLIS);
+        repository.save(new Car("Toyota", "Corolla", 2020));
+
+        CarRepository recovered = open(crashCopy(), FsyncPolicy.ALWAYS, 10);
+        assertThat(recovered.count()).isZero();
+    }
+
+    private CarRepository open(Path path, FsyncPolicy policy, long flushIntervalMillis) {
+        return open(new WriteAheadLog(path, policy, flushIntervalMillis, NO_COMPACTION, 0));
+    }
+
+    private CarRepository open(WriteAheadLog log) {
+        opened.add(log);
+        CarRepository repository = new ConcurrentCarRepository(log);
+        repository.recover();
+        return repository;
+    }
+
+    private Path crashCopy() throws IOException {
+        return crashCopy(directory);
+    }
+
+    /**
+     * Copy the log files as a crash would leave them: whatever has reached the files, nothing more
+     */
+    private Path crashCopy(Path source) throws IOException {
+        Path target = Files.createTempDirectory(crashed, "copy");
+        try (Stream<Path> files = Files.list(source)) {
+            files.forEach(file -> {
+                try {
+                    Files.copy(file, target.resolve(file.getFileName()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return target;
+    }
+
+    private static List<Path> segments(Path path) throws IOException {
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+
+    private static Path lastSegment(Path path) throws IOException {
+        List<Path> segments = segments(path);
+        return segments.get(segments.size() - 1);
+    }
+
+    private static void assertSameEntries(Car actual, Car expected) {
+        FuelEntryStore a = actual.getFuelEntryStore();
+        FuelEntryStore e = expected.getFuelEntryStore();
+        assertThat(a.size()).isEqualTo(e.size());
+        for (int i = 0; i < e.size(); i++) {
+            assertThat(a.idAt(i)).isEqualTo(e.idAt(i));
+            assertThat(a.millilitersAt(i)).isEqualTo(e.millilitersAt(i));
+            assertThat(a.priceMinorUnitsAt(i)).isEqualTo(e.priceMinorUnitsAt(i));
+            assertThat(a.odometerAt(i)).isEqualTo(e.odometerAt(i));
+            assertThat(a.timestampAt(i)).isEqualTo(e.timestampAt(i));
+        }
+    }
+}
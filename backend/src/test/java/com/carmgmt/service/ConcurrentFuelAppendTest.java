@@ -0,0 +1,118 @@
+package com.carmgmt.service;
+
+import com.carmgmt.exception.ValidationException;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntryStore;
+import com.carmgmt.model.FuelTotals;
+import com.carmgmt.repository.MutationLog;
+import com.carmgmt.repository.StorageBackend;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races appends to a few shared cars with odometers derived from stale reads, so the
+ * monotonic-odometer check is regularly contended, then verifies every car's history
+ */
+class ConcurrentFuelAppendTest {
+    private static final int THREADS = 4;
+    private static final int APPENDS_PER_THREAD = 5_000;
+    private static final int CARS = 3;
+
+    @ParameterizedTest
+    @ValueSource(strings = {StorageBackend.CONCURRENT, StorageBackend.LOCKED})
+    void appendsKeepEveryCarConsistent(String backend) throws InterruptedException {
+        CarService service = new CarService(StorageBackend.create(backend, MutationLog.NONE));
+        Car[] fleet = new Car[CARS];
+        for (int c = 0; c < CARS; c++) {
+            fleet[c] = service.createCar("Brand", "Model" + c, 2020);
+        }
+
+        AtomicLongArray accepted = new AtomicLongArray(CARS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<String> problems = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                await(start);
+                for (int i = 0; i < APPENDS_PER_THREAD; i++) {
+                    int index = random.nextInt(CARS);
+                    Car car = fleet[index];
+                    int odometer = car.getFuelTotals().getMaxOdometer() + random.nextInt(-2, 10);
+                    try {
+                        service.addFuelEntry(car.getId(), 40_000L, 150L, Math.max(odometer, 0));
+                        accepted.incrementAndGet(index);
+                    } catch (ValidationException e) {
+                        // Lost the race to a higher reading
+                    }
+                }
+            }, "append-" + t));
+        }
+        // Lock-free readers must never see totals go backwards or run ahead of the history
+        Thread reader = new Thread(() -> {
+            await(start);
+            int[] lastCount = new int[CARS];
+            while (writing.get()) {
+                for (int c = 0; c < CARS; c++) {
+                    FuelTotals totals = fleet[c].getFuelTotals();
+                    if (totals.getEntryCount() < lastCount[c]) {
+                        problems.add("car " + c + " entry count went backwards");
+                    }
+                    if (fleet[c].getFuelEntryStore().size() < totals.getEntryCount()) {
+                        problems.add("car " + c + " totals published before the history");
+                    }
+                    lastCount[c] = totals.getEntryCount();
+                }
+            }
+        }, "reader");
+
+        writers.forEach(Thread::start);
+        reader.start();
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        assertThat(problems).isEmpty();
+        long maxId = 0;
+        for (int c = 0; c < CARS; c++) {
+            FuelEntryStore store = fleet[c].getFuelEntryStore();
+            int size = store.size();
+            assertThat(size).isEqualTo(accepted.get(c));
+            for (int i = 1; i < size; i++) {
+                assertThat(store.odometerAt(i)).isGreaterThanOrEqualTo(store.odometerAt(i - 1));
+                assertThat(store.idAt(i)).isGreaterThan(store.idAt(i - 1));
+            }
+            assertThat(fleet[c].getFuelTotals()).usingRecursiveComparison().isEqualTo(FuelTotals.of(store));
+            maxId = Math.max(maxId, size > 0 ? store.idAt(size - 1) : 0);
+        }
+        // Every accepted append got its own ID
+        long total = 0;
+        for (int c = 0; c < CARS; c++) {
+            total += accepted.get(c);
+        }
+        assertThat(maxId).isEqualTo(total);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.carmgmt.service;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void incrementalExportsCoverEveryEntry() throws IOException {
+        ConcurrentCarRepository repository = new ConcurrentCarRepository();
+        ExportService exportService = new ExportService(repository);
+        Car car = repository.save(new Car("Toyota", "Corolla", 2020));
+        repository.addFuelEntry(car, new FuelEntry(40_000L, 6_000L, 100));
+        repository.addFuelEntry(car, new FuelEntry(41_000L, 6_100L, 200));
+
+        List<JsonNode> full = export(exportService, null);
+        assertThat(entryIds(full)).containsExactly(1L, 2L);
+        assertThat(end(full).get("lastFuelEntryId").asLong()).isEqualTo(2);
+
+        repository.addFuelEntry(car, new FuelEntry(42_000L, 6_200L, 300));
+        List<JsonNode> next = export(exportService, 2L);
+        assertThat(entryIds(next)).containsExactly(3L);
+        assertThat(end(next).get("lastFuelEntryId").asLong()).isEqualTo(3);
+
+        List<JsonNode> none = export(exportService, 3L);
+        assertThat(entryIds(none)).isEmpty();
+        assertThat(end(none).get("cars").asInt()).isEqualTo(1);
+        assertThat(end(none).get("lastFuelEntryId").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void entryAppendedToVisitedCarDuringExportIsInNextExport() throws IOException {
+        List<Car> fleet = new ArrayList<>();
+        // Once the export moves on from the first car, append to it and to the car coming up next
+        ConcurrentCarRepository repository = new ConcurrentCarRepository() {
+            private boolean appended;
+
+            @Override
+            public Iterable<Car> iterateAfter(Long afterId) {
+                Iterable<Car> cars = super.iterateAfter(afterId);
+                return () -> {
+                    Iterator<Car> iterator = cars.iterator();
+                    return new Iterator<>() {
+                        private int visited;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Car next() {
+                            if (visited++ == 1 && !appended) {
+                                appended = true;
+                                addFuelEntry(fleet.get(0), new FuelEntry(10_000L, 1_000L, 1_000));
+                                addFuelEntry(fleet.get(1), new FuelEntry(20_000L, 2_000L, 2_000));
+                            }
+                            return iterator.next();
+                        }
+                    };
+                };
+            }
+        };
+        ExportService exportService = new ExportService(repository);
+        fleet.add(repository.save(new Car("Toyota", "Corolla", 2020)));
+        fleet.add(repository.save(new Car("Honda", "Civic", 2019)));
+        repository.addFuelEntry(fleet.get(0), new FuelEntry(40_000L, 6_000L, 100));
+        repository.addFuelEntry(fleet.get(1), new FuelEntry(41_000L, 6_100L, 200));
+
+        List<JsonNode> during = export(exportService, null);
+        assertThat(entryIds(during)).containsExactly(1L, 2L);
+        long since = end(during).get("lastFuelEntryId").asLong();
+        assertThat(since).isEqualTo(2);
+
+        List<JsonNode> after = export(exportService, since);
+        assertThat(entryIds(after)).containsExactlyInAnyOrder(3L, 4L);
+    }
+
+    private List<JsonNode> export(ExportService exportService, Long since) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportNdjson(out, objectMapper.getFactory(), since);
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            records.add(objectMapper.readTree(line));
+        }
+        return records;
+    }
+
+    private static List<Long> entryIds(List<JsonNode> records) {
+        return records.stream()
+                .filter(record -> record.get("type").asText().equals("fuelEntry"))
+                .map(record -> record.get("id").asLong())
+                .toList();
+    }
+
+    private static JsonNode end(List<JsonNode> records) {
+        JsonNode last = records.get(records.size() - 1);
+        assertThat(last.get("type").asText()).isEqualTo("end");
+        return last;
+    }
+}
@@ -0,0 +1,143 @@
+package com.carmgmt.service;
+
+import com.carmgmt.dto.CursorPage;
+import com.carmgmt.dto.SortOrder;
+import com.carmgmt.exception.ValidationException;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FuelEntriesPageTest {
+    private CarService service;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        service = new CarService(new ConcurrentCarRepository());
+        car = service.createCar("Toyota", "Corolla", 2020);
+    }
+
+    @Test
+    void walksHistoryOldestFirst() {
+        addEntries(10);
+
+        assertThat(walk(null, SortOrder.ASC, 3)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        // A last page that is exactly full reports no more
+        assertThat(walk(null, SortOrder.ASC, 5)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        CursorPage<FuelEntry> full = service.getFuelEntriesPage(car.getId(), null, null, SortOrder.ASC, 10);
+        assertThat(full.isHasMore()).isFalse();
+        assertThat(full.getNextCursor()).isNull();
+    }
+
+    @Test
+    void walksHistoryNewestFirst() {
+        addEntries(10);
+
+        assertThat(walk(null, SortOrder.DESC, 4)).containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(walk(null, SortOrder.DESC, 10)).hasSize(10);
+    }
+
+    @Test
+    void idCursorAtBothEnds() {
+        addEntries(5);
+
+        assertThat(ids(page(0L, null, SortOrder.ASC, 10))).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(ids(page(5L, null, SortOrder.ASC, 10))).isEmpty();
+        assertThat(ids(page(Long.MAX_VALUE, null, SortOrder.ASC, 10))).isEmpty();
+
+        assertThat(ids(page(1L, null, SortOrder.DESC, 10))).isEmpty();
+        assertThat(ids(page(Long.MIN_VALUE, null, SortOrder.DESC, 10))).isEmpty();
+        assertThat(ids(page(6L, null, SortOrder.DESC, 10))).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void odometerCursorOnSortedHistory() {
+        // Readings 0, 100, ..., 900
+        addEntries(10);
+
+        assertThat(ids(page(null, 300, SortOrder.ASC, 3))).containsExactly(5L, 6L, 7L);
+        assertThat(ids(page(null, 299, SortOrder.ASC, 1))).containsExactly(4L);
+        assertThat(ids(page(null, 900, SortOrder.ASC, 10))).isEmpty();
+        assertThat(ids(page(null, -1, SortOrder.ASC, 1))).containsExactly(1L);
+
+        assertThat(ids(page(null, 300, SortOrder.DESC, 10))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(page(null, 0, SortOrder.DESC, 10))).isEmpty();
+        assertThat(ids(page(null, 901, SortOrder.DESC, 1))).containsExactly(10L);
+        // Both cursors together: the tighter one wins
+        assertThat(ids(page(7L, 300, SortOrder.ASC, 10))).containsExactly(8L, 9L, 10L);
+        assertThat(ids(page(3L, 300, SortOrder.ASC, 10))).containsExactly(5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void odometerCursorFallsBackToFilteringUnsortedHistory() {
+        int[] odometers = {500, 100, 400, 200, 300};
+        List<FuelEntry> entries = new ArrayList<>();
+        for (int i = 0; i < odometers.length; i++) {
+            FuelEntry entry = new FuelEntry(40_000L, 6_000L, odometers[i]);
+            entry.setId(i + 1L);
+            entries.add(entry);
+        }
+        FuelEntry withoutReading = new FuelEntry(40_000L, 6_000L, null);
+        withoutReading.setId(6L);
+        entries.add(withoutReading);
+        car.setFuelEntries(entries);
+        assertThat(car.getFuelEntryStore().isOdometerSorted()).isFalse();
+
+        assertThat(ids(page(null, 250, SortOrder.ASC, 10))).containsExactly(1L, 3L, 5L);
+        assertThat(ids(page(null, 250, SortOrder.ASC, 2))).containsExactly(1L, 3L);
+        assertThat(ids(page(3L, 250, SortOrder.ASC, 10))).containsExactly(5L);
+        assertThat(ids(page(null, 250, SortOrder.DESC, 10))).containsExactly(4L, 2L);
+
+        // The last matching entry fills the page exactly, so there is nothing more
+        CursorPage<FuelEntry> last = page(null, 250, SortOrder.ASC, 3);
+        assertThat(last.isHasMore()).isFalse();
+        CursorPage<FuelEntry> partial = page(null, 250, SortOrder.ASC, 2);
+        assertThat(partial.isHasMore()).isTrue();
+        assertThat(partial.getNextCursor()).isEqualTo(3L);
+    }
+
+    @Test
+    void rejectsLimitOutsideBounds() {
+        assertThatThrownBy(() -> page(null, null, SortOrder.ASC, 0)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> page(null, null, SortOrder.ASC, CarService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(ValidationException.class);
+        assertThat(page(null, null, SortOrder.ASC, CarService.MAX_PAGE_SIZE).getItems()).isEmpty();
+    }
+
+    private void addEntries(int count) {
+        for (int i = 0; i < count; i++) {
+            service.addFuelEntry(car.getId(), 40_000L, 6_000L, i * 100);
+        }
+    }
+
+    private CursorPage<FuelEntry> page(Long after, Integer afterOdometer, SortOrder order, int limit) {
+        return service.getFuelEntriesPage(car.getId(), after, afterOdometer, order, limit);
+    }
+
+    // Follow nextCursor to the end, collecting entry IDs
+    private List<Long> walk(Integer afterOdometer, SortOrder order, int limit) {
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        while (true) {
+            CursorPage<FuelEntry> page = page(cursor, afterOdometer, order, limit);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(limit);
+            seen.addAll(ids(page));
+            if (!page.isHasMore()) {
+                return seen;
+            }
+            cursor = page.getNextCursor();
+        }
+    }
+
+    private static List<Long> ids(CursorPage<FuelEntry> page) {
+        return page.getItems().stream().map(FuelEntry::getId).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package com.carmgmt.service;
+
+import com.carmgmt.dto.AddFuelRequest;
+import com.carmgmt.dto.BulkFuelRequest;
+import com.carmgmt.dto.FuelBatchResult;
+import com.carmgmt.exception.ValidationException;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FixedPoint;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FuelValidationTest {
+    private CarService service;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        service = new CarService(new ConcurrentCarRepository());
+        car = service.createCar("Toyota", "Corolla", 2020);
+    }
+
+    @Test
+    void everyEndpointRejectsTheSameValues() {
+        assertRejected("40", "0", 100, "Price must be a positive number");
+        // Positive, but zero once rounded to the cent
+        assertRejected("40", "0.004", 100, "Price must be a positive number");
+        assertRejected("40", "-1.5", 100, "Price must be a positive number");
+        assertRejected("40", null, 100, "Price must be a positive number");
+        assertRejected("0", "52.5", 100, "Liters must be a positive number");
+        assertRejected("0.0004", "52.5", 100, "Liters must be a positive number");
+        assertRejected(null, "52.5", 100, "Liters must be a positive number");
+        assertRejected("40", "52.5", -1, "Odometer must be a non-negative number");
+        assertRejected("40", "52.5", null, "Odometer must be a non-negative number");
+        assertThat(car.getFuelTotals().getEntryCount()).isZero();
+    }
+
+    @Test
+    void everyEndpointAcceptsTheSmallestPositiveValues() {
+        AddFuelRequest request = request("0.001", "0.01", 0);
+
+        addSingle(request);
+        assertThat(service.addFuelEntries(car.getId(), List.of(request)).getRejected()).isZero();
+        assertThat(service.addFuelEntriesBulk(List.of(bulk(request))).getRejected()).isZero();
+        assertThat(car.getFuelTotals().getEntryCount()).isEqualTo(3);
+    }
+
+    private void assertRejected(String liters, String price, Integer odometer, String error) {
+        AddFuelRequest request = request(liters, price, odometer);
+
+        assertThatThrownBy(() -> addSingle(request))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage(error);
+        assertOnlyItemRejected(service.addFuelEntries(car.getId(), List.of(request)), error);
+        assertOnlyItemRejected(service.addFuelEntriesBulk(List.of(bulk(request))), error);
+    }
+
+    private static void assertOnlyItemRejected(FuelBatchResult result, String error) {
+        assertThat(result.getAccepted()).isZero();
+        assertThat(result.getResults()).singleElement()
+                .satisfies(item -> assertThat(item.getError()).isEqualTo(error));
+    }
+
+    // Converted as CarController.addFuelEntry does
+    private void addSingle(AddFuelRequest request) {
+        service.addFuelEntry(car.getId(),
+                request.getLiters() != null ? FixedPoint.toMilliliters(request.getLiters()) : null,
+                request.getPrice() != null ? FixedPoint.toMinorUnits(request.getPrice()) : null,
+                request.getOdometer(),
+                request.getTimestamp());
+    }
+
+    private static AddFuelRequest request(String liters, String price, Integer odometer) {
+        AddFuelRequest request = new AddFuelRequest();
+        request.setLiters(liters != null ? new BigDecimal(liters) : null);
+        request.setPrice(price != null ? new BigDecimal(price) : null);
+        request.setOdometer(odometer);
+        return request;
+    }
+
+    private BulkFuelRequest bulk(AddFuelRequest request) {
+        BulkFuelRequest bulk = new BulkFuelRequest();
+        bulk.setCarId(car.getId());
+        bulk.setLiters(request.getLiters());
+        bulk.setPrice(request.getPrice());
+        bulk.setOdometer(request.getOdometer());
+        return bulk;
+    }
+}
@@ -0,0 +1,39 @@
+package com.carmgmt.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentCodingsTest {
+
+    @Test
+    void acceptsListedCoding() {
+        assertThat(ContentCodings.accepts("gzip", "gzip")).isTrue();
+        assertThat(ContentCodings.accepts("deflate, GZIP", "gzip")).isTrue();
+        assertThat(ContentCodings.accepts("br;q=1.0, gzip;q=0.5", "gzip")).isTrue();
+        assertThat(ContentCodings.accepts("gzip ; Q = 0.001", "gzip")).isTrue();
+    }
+
+    @Test
+    void refusesCodingWithZeroQuality() {
+        assertThat(ContentCodings.accepts("gzip;q=0", "gzip")).isFalse();
+        assertThat(ContentCodings.accepts("gzip;q=0.000, deflate", "gzip")).isFalse();
+        assertThat(ContentCodings.accepts("*;q=1, gzip;q=0", "gzip")).isFalse();
+        assertThat(ContentCodings.accepts("gzip;q=abc", "gzip")).isFalse();
+    }
+
+    @Test
+    void fallsBackToWildcard() {
+        assertThat(ContentCodings.accepts("*", "gzip")).isTrue();
+        assertThat(ContentCodings.accepts("br, *;q=0", "gzip")).isFalse();
+        assertThat(ContentCodings.accepts("*;q=0, gzip", "gzip")).isTrue();
+    }
+
+    @Test
+    void ignoresUnlistedAndLookalikeCodings() {
+        assertThat(ContentCodings.accepts(null, "gzip")).isFalse();
+        assertThat(ContentCodings.accepts("", "gzip")).isFalse();
+        assertThat(ContentCodings.accepts("identity", "gzip")).isFalse();
+        assertThat(ContentCodings.accepts("x-gzipped, nogzip", "gzip")).isFalse();
+    }
+}
@@ -0,0 +1,30 @@
+package com.carmgmt.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Runs JMH with the gc profiler and JSON results
+ * written to {@value #DEFAULT_RESULT_FILE} unless the arguments choose otherwise;
+ * every other argument is passed to JMH unchanged (e.g. a benchmark regex or -p fleetSize=1000).
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_RESULT_FILE = "jmh-results.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("gc")) {
+            arguments.addAll(List.of("-prof", "gc"));
+        }
+        if (!arguments.contains("-rf")) {
+            arguments.addAll(List.of("-rf", "json"));
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.addAll(List.of("-rff", DEFAULT_RESULT_FILE));
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
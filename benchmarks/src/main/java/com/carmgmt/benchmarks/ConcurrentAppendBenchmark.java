@@ -0,0 +1,190 @@
+package com.carmgmt.benchmarks;
+
+import com.carmgmt.exception.ValidationException;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntryStore;
+import com.carmgmt.model.FuelTotals;
+import com.carmgmt.repository.CarRepository;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.carmgmt.service.CarService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-threaded fuel append throughput through {@link CarService#addFuelEntry},
+ * followed by a check that every car's history is consistent.
+ * <p>
+ * Each run starts with a fresh fleet. In "distinct" mode every thread appends to its own
+ * cars, so throughput should scale with cores; in "shared" mode all threads append to the
+ * same few cars and serialize on their monitors. Odometer readings are derived from a
+ * possibly stale read of the car's maximum, so racing appends regularly trip the
+ * monotonic-odometer check.
+ * <p>
+ * After each run the checker verifies, per car, that odometers never decrease, entry IDs
+ * strictly increase, the entry count matches the accepted appends, and the running totals
+ * equal a full recomputation.
+ * <p>
+ * Usage: ConcurrentAppendBenchmark [--threads 1,2,4] [--cars N] [--seconds N]
+ * (defaults: 1, 2, 4, ... up to twice the available processors; 1024 cars; 3 seconds per run).
+ */
+public class ConcurrentAppendBenchmark {
+    private static final int SHARED_CARS = 4;
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> threadCounts = defaultThreadCounts();
+        int cars = 1024;
+        int seconds = 3;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threadCounts = new ArrayList<>();
+                    for (String count : args[++i].split(",")) {
+                        threadCounts.add(Integer.parseInt(count.trim()));
+                    }
+                    break;
+                case "--cars":
+                    cars = Integer.parseInt(args[++i]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        System.out.printf("Available processors: %d%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %8s %14s %10s %s%n", "mode", "threads", "appends/s", "rejected", "check");
+        boolean consistent = true;
+        for (String mode : new String[] {"distinct", "shared"}) {
+            for (int threads : threadCounts) {
+                int fleetSize = mode.equals("distinct") ? Math.max(cars, threads) : SHARED_CARS;
+                consistent &= run(mode, threads, fleetSize, seconds);
+            }
+        }
+        if (!consistent) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String mode, int threads, int fleetSize, int seconds) throws InterruptedException {
+        CarRepository repository = new ConcurrentCarRepository();
+        CarService service = new CarService(repository);
+        Car[] fleet = new Car[fleetSize];
+        for (int c = 0; c < fleetSize; c++) {
+            fleet[c] = service.createCar("Brand", "Model" + c, 2020);
+        }
+
+        AtomicLongArray accepted = new AtomicLongArray(fleetSize);
+        long[] rejected = new long[threads];
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long rejections = 0;
+                int next = worker;
+                while (System.nanoTime() < deadline) {
+                    // distinct: thread t owns cars t, t + threads, ...; shared: any thread, any car
+                    int index;
+                    if (mode.equals("distinct")) {
+                        index = next;
+                        next += threads;
+                        if (next >= fleetSize) {
+                            next = worker;
+                        }
+                    } else {
+                        index = random.nextInt(fleetSize);
+                    }
+                    Car car = fleet[index];
+                    int odometer = car.getFuelTotals().getMaxOdometer() + random.nextInt(-2, 10);
+                    try {
+                        service.addFuelEntry(car.getId(), 40_000L, 150L, Math.max(odometer, 0));
+                        accepted.incrementAndGet(index);
+                    } catch (ValidationException e) {
+                        rejections++;
+                    }
+                }
+                rejected[worker] = rejections;
+            }, "append-" + t);
+            workers.add(thread);
+            thread.start();
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long totalAccepted = 0;
+        for (int c = 0; c < fleetSize; c++) {
+            totalAccepted += accepted.get(c);
+        }
+        long totalRejected = 0;
+        for (long r : rejected) {
+            totalRejected += r;
+        }
+
+        String problem = check(fleet, accepted);
+        System.out.printf("%-8s %8d %,14.0f %10d %s%n", mode, threads,
+                (totalAccepted + totalRejected) / elapsedSeconds, totalRejected,
+                problem == null ? "ok" : "FAILED: " + problem);
+        return problem == null;
+    }
+
+    /**
+     * Verify each car's history; returns a description of the first violation, or null
+     */
+    private static String check(Car[] fleet, AtomicLongArray accepted) {
+        for (int c = 0; c < fleet.length; c++) {
+            Car car = fleet[c];
+            FuelEntryStore store = car.getFuelEntryStore();
+            int size = store.size();
+            if (size != accepted.get(c)) {
+                return "car " + car.getId() + " holds " + size + " entries, " + accepted.get(c) + " accepted";
+            }
+            for (int i = 1; i < size; i++) {
+                if (store.odometerAt(i) < store.odometerAt(i - 1)) {
+                    return "car " + car.getId() + " odometer decreases at entry " + i;
+                }
+                if (store.idAt(i) <= store.idAt(i - 1)) {
+                    return "car " + car.getId() + " entry IDs out of order at entry " + i;
+                }
+            }
+            FuelTotals totals = car.getFuelTotals();
+            FuelTotals recomputed = FuelTotals.of(store);
+            if (totals.getEntryCount() != recomputed.getEntryCount()
+                    || totals.getTotalMilliliters() != recomputed.getTotalMilliliters()
+                    || totals.getMaxOdometer() != recomputed.getMaxOdometer()) {
+                return "car " + car.getId() + " totals " + totals + " differ from " + recomputed;
+            }
+        }
+        return null;
+    }
+
+    private static List<Integer> defaultThreadCounts() {
+        int limit = 2 * Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads <= limit; threads *= 2) {
+            counts.add(threads);
+        }
+        if (counts.get(counts.size() - 1) != limit) {
+            counts.add(limit);
+        }
+        return counts;
+    }
+}
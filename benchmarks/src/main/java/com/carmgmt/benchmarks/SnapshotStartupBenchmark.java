@@ -0,0 +1,139 @@
+package com.carmgmt.benchmarks;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.repository.CarRepository;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.carmgmt.repository.FsyncPolicy;
+import com.carmgmt.repository.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Measures time-to-ready of a durable CarRepository, once by replaying the full
+ * mutation history and once by loading the snapshot written on shutdown.
+ * <p>
+ * Usage: SnapshotStartupBenchmark [--cars N] [--entries N] [--dir PATH]
+ * (defaults: 100000 cars, 10000000 fuel entries, a temporary directory).
+ * Run with a heap large enough for two copies of the data, e.g. -Xmx6g.
+ */
+public class SnapshotStartupBenchmark {
+    private static final long FLUSH_INTERVAL_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int cars = 100_000;
+        long entries = 10_000_000L;
+        Path directory = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--cars":
+                    cars = Integer.parseInt(args[++i]);
+                    break;
+                case "--entries":
+                    entries = Long.parseLong(args[++i]);
+                    break;
+                case "--dir":
+                    directory = Paths.get(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        boolean temporary = directory == null;
+        if (temporary) {
+            directory = Files.createTempDirectory("carmgmt-snapshot-bench");
+        }
+
+        Path logOnly = directory.resolve("log-only");
+        Path withSnapshot = directory.resolve("with-snapshot");
+        try {
+            System.out.printf("Populating %,d cars with %,d fuel entries in %s%n", cars, entries, directory);
+            long started = System.nanoTime();
+            populate(withSnapshot, logOnly, cars, entries);
+            System.out.printf("Populate: %,d ms, log size %,d bytes, snapshot size %,d bytes%n",
+                    millisSince(started), sizeOf(logOnly, "wal-"), sizeOf(withSnapshot, "snapshot.bin"));
+            System.gc();
+
+            System.out.printf("Time-to-ready from log replay: %,d ms%n", timeToReady(logOnly));
+            System.gc();
+            System.out.printf("Time-to-ready from snapshot:   %,d ms%n", timeToReady(withSnapshot));
+        } finally {
+            if (temporary) {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    /**
+     * Populate a durable repository, keep a copy of the raw log in logOnly,
+     * then close it so the shutdown snapshot lands in withSnapshot
+     */
+    private static void populate(Path withSnapshot, Path logOnly, int cars, long entries)
+            throws IOException, InterruptedException {
+        WriteAheadLog log = openLog(withSnapshot);
+        CarRepository repository = new ConcurrentCarRepository(log);
+        repository.recover();
+
+        long perCar = entries / cars;
+        long remainder = entries % cars;
+        for (int c = 0; c < cars; c++) {
+            Car car = new Car("Brand" + (c % 50), "Model" + c, 2000 + c % 25);
+            repository.save(car);
+            long count = perCar + (c < remainder ? 1 : 0);
+            for (int e = 0; e < count; e++) {
+                repository.addFuelEntry(car, new FuelEntry(35_000L + (e % 20) * 1_000L, 150L + e % 7, e * 550));
+            }
+        }
+
+        // Let the flusher drain the buffer, then copy the segments before close() snapshots them away
+        Thread.sleep(5 * FLUSH_INTERVAL_MILLIS);
+        Files.createDirectories(logOnly);
+        try (Stream<Path> files = Files.list(withSnapshot)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, logOnly.resolve(file.getFileName()));
+            }
+        }
+        log.close();
+    }
+
+    private static long timeToReady(Path directory) {
+        long started = System.nanoTime();
+        WriteAheadLog log = openLog(directory);
+        CarRepository repository = new ConcurrentCarRepository(log);
+        repository.recover();
+        long elapsed = millisSince(started);
+        System.out.printf("Recovered %,d cars from %s%n", repository.findAll().size(), directory.getFileName());
+        log.close();
+        return elapsed;
+    }
+
+    private static WriteAheadLog openLog(Path directory) {
+        // No size-triggered compaction or periodic snapshots while the benchmark runs
+        return new WriteAheadLog(directory, FsyncPolicy.OS, FLUSH_INTERVAL_MILLIS, Long.MAX_VALUE, 0);
+    }
+
+    private static long millisSince(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private static long sizeOf(Path directory, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .mapToLong(path -> path.toFile().length())
+                    .sum();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.dto.CursorPage;
+import com.carmgmt.dto.SortOrder;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.model.FuelStats;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.carmgmt.service.CarService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot paths of {@link CarService}. The *Concurrent variants run the same
+ * operation from {@value #THREADS} threads against the shared fleet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CarServiceBenchmark {
+    static final int THREADS = 4;
+
+    @Benchmark
+    public FuelStats getFuelStats(FleetState fleet) {
+        return fleet.service.getFuelStats(fleet.carIds[fleet.randomIndex()]);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public FuelStats getFuelStatsConcurrent(FleetState fleet) {
+        return fleet.service.getFuelStats(fleet.carIds[fleet.randomIndex()]);
+    }
+
+    @Benchmark
+    public FuelEntry addFuelEntry(FleetState fleet) {
+        return fleet.service.addFuelEntry(fleet.carIds[fleet.randomIndex()], 40_000L, 160L, fleet.topOdometer);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public FuelEntry addFuelEntryConcurrent(FleetState fleet) {
+        return fleet.service.addFuelEntry(fleet.carIds[fleet.randomIndex()], 40_000L, 160L, fleet.topOdometer);
+    }
+
+    @Benchmark
+    public Car createCar(CreateState state) {
+        return state.service.createCar("Bench", "Model" + state.sequence.incrementAndGet(), 2020);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Car createCarConcurrent(CreateState state) {
+        return state.service.createCar("Bench", "Model" + state.sequence.incrementAndGet(), 2020);
+    }
+
+    @Benchmark
+    public CursorPage<FuelEntry> getLatestFuelEntries(HistoryState state) {
+        return state.service.getFuelEntriesPage(state.carId, null, null, SortOrder.DESC, HistoryState.PAGE_SIZE);
+    }
+
+    /**
+     * Materialize the whole history, as serializing the full car does
+     */
+    @Benchmark
+    public List<FuelEntry> getWholeFuelHistory(HistoryState state) {
+        return new ArrayList<>(state.service.getCarById(state.carId).getFuelEntries());
+    }
+
+    /**
+     * Every created car stays in the repository, so the fleet is rebuilt before
+     * each iteration to keep its size close to fleetSize
+     */
+    @State(Scope.Benchmark)
+    public static class CreateState {
+        @Param({"1000", "100000"})
+        public int fleetSize;
+
+        CarService service;
+        final AtomicLong sequence = new AtomicLong();
+
+        @Setup(Level.Iteration)
+        public void populate() {
+            service = new CarService(new ConcurrentCarRepository());
+            for (int c = 0; c < fleetSize; c++) {
+                service.createCar(FleetState.brand(c), FleetState.model(c), FleetState.year(c));
+            }
+        }
+    }
+
+    /**
+     * One car with a long fuel history, read a page at a time
+     */
+    @State(Scope.Benchmark)
+    public static class HistoryState {
+        static final int PAGE_SIZE = 20;
+
+        @Param({"100", "100000"})
+        public int historySize;
+
+        CarService service;
+        Long carId;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            service = new CarService(new ConcurrentCarRepository());
+            carId = service.createCar("Bench", "History", 2020).getId();
+            for (int e = 0; e < historySize; e++) {
+                service.addFuelEntry(carId, 40_000L, 160L, e * FleetState.ODOMETER_STEP);
+            }
+        }
+    }
+}
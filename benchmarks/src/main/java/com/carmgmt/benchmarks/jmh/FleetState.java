@@ -0,0 +1,93 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.repository.CarRepository;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.carmgmt.service.CarService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory fleet shared by all benchmark threads, populated once per trial
+ * through {@link CarService} so it holds the same state the API would build.
+ */
+@State(Scope.Benchmark)
+public class FleetState {
+    static final int ODOMETER_STEP = 550;
+
+    @Param({"1000", "100000"})
+    public int fleetSize;
+
+    @Param({"10", "100"})
+    public int entriesPerCar;
+
+    CarRepository repository;
+    CarService service;
+    Long[] carIds;
+    String[] brands;
+    String[] models;
+    Integer[] years;
+    String[] missingModels;
+    // Equal to every car's highest reading, so appending it always passes validation
+    Integer topOdometer;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new ConcurrentCarRepository();
+        service = new CarService(repository);
+        carIds = new Long[fleetSize];
+        brands = new String[fleetSize];
+        models = new String[fleetSize];
+        years = new Integer[fleetSize];
+        missingModels = new String[fleetSize];
+        topOdometer = Math.max(0, entriesPerCar - 1) * ODOMETER_STEP;
+
+        for (int c = 0; c < fleetSize; c++) {
+            brands[c] = brand(c);
+            models[c] = model(c);
+            years[c] = year(c);
+            missingModels[c] = "Missing" + c;
+
+            Car car = service.createCar(brands[c], models[c], years[c]);
+            carIds[c] = car.getId();
+            for (int e = 0; e < entriesPerCar; e++) {
+                service.addFuelEntry(car.getId(), liters(e), price(e), e * ODOMETER_STEP);
+            }
+        }
+    }
+
+    int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(fleetSize);
+    }
+
+    static String brand(int c) {
+        return "Brand" + (c % 50);
+    }
+
+    static String model(int c) {
+        return "Model" + c;
+    }
+
+    static Integer year(int c) {
+        return 2000 + c % 25;
+    }
+
+    /**
+     * Volume of the e-th seeded fill-up in milliliters
+     */
+    static Long liters(int e) {
+        return 35_000L + (e % 20) * 1_000L;
+    }
+
+    /**
+     * Price of the e-th seeded fill-up in minor currency units
+     */
+    static Long price(int e) {
+        return 150L + e % 7;
+    }
+}
@@ -0,0 +1,34 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.model.FleetTotals;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fleet-wide reduction behind GET /api/fleet/stats, sequential versus parallel.
+ * Run with -p fleetSize=100000 for the fleet size the endpoint is sized for
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FleetStatsBenchmark {
+
+    @Benchmark
+    public FleetTotals sequential(FleetState fleet) {
+        return FleetTotals.of(fleet.repository.streamAll());
+    }
+
+    @Benchmark
+    public FleetTotals parallel(FleetState fleet) {
+        return FleetTotals.of(fleet.repository.streamAll().parallel());
+    }
+}
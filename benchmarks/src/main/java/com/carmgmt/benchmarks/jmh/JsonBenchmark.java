@@ -0,0 +1,75 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.dto.ApiResponse;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.carmgmt.service.CarService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the ApiResponse&lt;Car&gt; body returned by GET /api/cars/{id},
+ * using an ObjectMapper configured the way Spring MVC configures its own.
+ * The summary variants build and serialize the view=summary body instead
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    public int entriesPerCar;
+
+    private ObjectMapper objectMapper;
+    private CarService carService;
+    private Car car;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        carService = new CarService(new ConcurrentCarRepository());
+        car = new Car("Toyota", "Corolla", 2018);
+        car.setId(1L);
+        for (int e = 0; e < entriesPerCar; e++) {
+            FuelEntry entry = new FuelEntry(FleetState.liters(e), FleetState.price(e), e * FleetState.ODOMETER_STEP);
+            entry.setId((long) e + 1);
+            car.addFuelEntry(entry);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCarResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success("Car retrieved successfully", car));
+    }
+
+    @Benchmark
+    @Threads(CarServiceBenchmark.THREADS)
+    public byte[] serializeCarResponseConcurrent() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success("Car retrieved successfully", car));
+    }
+
+    @Benchmark
+    public byte[] serializeCarSummaryResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success("Car retrieved successfully", carService.summarize(car)));
+    }
+}
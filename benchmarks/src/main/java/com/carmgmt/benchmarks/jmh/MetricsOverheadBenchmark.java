@@ -0,0 +1,119 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.dto.CursorPage;
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.metrics.OperationTimer;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.model.FuelStats;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.carmgmt.repository.InstrumentedCarRepository;
+import com.carmgmt.service.CarService;
+import com.carmgmt.service.FuelStatsCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the service and repository instrumentation: the same {@link CarService} calls with
+ * metrics disabled and enabled at each sample rate. A service call passes through a service
+ * and a repository timer (stats only the former). The timer* benchmarks measure one
+ * start/stop pair on its own, the cost a request pays per instrumented layer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MetricsOverheadBenchmark {
+
+    @Benchmark
+    public FuelStats getFuelStats(InstrumentedFleet fleet) {
+        return fleet.service.getFuelStats(fleet.randomId());
+    }
+
+    @Benchmark
+    @Threads(CarServiceBenchmark.THREADS)
+    public FuelStats getFuelStatsConcurrent(InstrumentedFleet fleet) {
+        return fleet.service.getFuelStats(fleet.randomId());
+    }
+
+    @Benchmark
+    public FuelEntry addFuelEntry(InstrumentedFleet fleet) {
+        return fleet.service.addFuelEntry(fleet.randomId(), 40_000L, 160L, fleet.topOdometer);
+    }
+
+    @Benchmark
+    public CursorPage<Car> getCarsPage(InstrumentedFleet fleet) {
+        return fleet.service.getCarsPage(fleet.randomId(), 10);
+    }
+
+    @Benchmark
+    public long timerEveryCall(InstrumentedFleet fleet) {
+        long start = fleet.requestTimer.start();
+        fleet.requestTimer.stop(start);
+        return start;
+    }
+
+    @Benchmark
+    public long timerSampled(InstrumentedFleet fleet) {
+        long start = fleet.sampledTimer.start();
+        fleet.sampledTimer.stop(start);
+        return start;
+    }
+
+    @State(Scope.Benchmark)
+    public static class InstrumentedFleet {
+        private static final int FLEET_SIZE = 10_000;
+        private static final int ENTRIES_PER_CAR = 10;
+
+        /**
+         * "off", or the sample rate of service and repository timers
+         */
+        @Param({"off", "16", "1"})
+        public String metrics;
+
+        CarService service;
+        OperationTimer requestTimer;
+        OperationTimer sampledTimer;
+        Long[] carIds;
+        Integer topOdometer;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            MetricsRegistry registry = "off".equals(metrics)
+                    ? MetricsRegistry.disabled()
+                    : new MetricsRegistry(true, Integer.parseInt(metrics));
+            service = new CarService(new InstrumentedCarRepository(new ConcurrentCarRepository(), registry), FuelStatsCache.disabled(), registry);
+            requestTimer = registry.timer("benchmark", "every-call");
+            sampledTimer = registry.sampledTimer("benchmark", "sampled");
+            carIds = new Long[FLEET_SIZE];
+            topOdometer = (ENTRIES_PER_CAR - 1) * FleetState.ODOMETER_STEP;
+            for (int c = 0; c < FLEET_SIZE; c++) {
+                Car car = service.createCar(FleetState.brand(c), FleetState.model(c), FleetState.year(c));
+                carIds[c] = car.getId();
+                for (int e = 0; e < ENTRIES_PER_CAR; e++) {
+                    service.addFuelEntry(car.getId(), FleetState.liters(e), FleetState.price(e),
+                            e * FleetState.ODOMETER_STEP);
+                }
+            }
+        }
+
+        Long randomId() {
+            return carIds[ThreadLocalRandom.current().nextInt(FLEET_SIZE)];
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.repository.CarRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate detection in {@link CarRepository}, for both existing and unknown cars
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RepositoryBenchmark {
+
+    @Benchmark
+    public boolean existsByBrandModelYearHit(FleetState fleet) {
+        int c = fleet.randomIndex();
+        return fleet.repository.existsByBrandModelYear(fleet.brands[c], fleet.models[c], fleet.years[c]);
+    }
+
+    @Benchmark
+    public boolean existsByBrandModelYearMiss(FleetState fleet) {
+        int c = fleet.randomIndex();
+        return fleet.repository.existsByBrandModelYear(fleet.brands[c], fleet.missingModels[c], fleet.years[c]);
+    }
+
+    @Benchmark
+    @Threads(CarServiceBenchmark.THREADS)
+    public boolean existsByBrandModelYearConcurrent(FleetState fleet) {
+        int c = fleet.randomIndex();
+        return fleet.repository.existsByBrandModelYear(fleet.brands[c], fleet.models[c], fleet.years[c]);
+    }
+}
@@ -0,0 +1,97 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.metrics.MetricsRegistry;
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.repository.ConcurrentCarRepository;
+import com.carmgmt.service.CarService;
+import com.carmgmt.service.FuelStatsCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-key stats workload: {@value #READERS} threads read one car's full-history stats response
+ * while another keeps adding fuel to it, so every read after a write misses the stats cache.
+ * With coalescing, the readers that miss together share one computation. The ratio of
+ * computations to reads is printed after each iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StatsCoalescingBenchmark {
+    static final int READERS = 7;
+
+    @Benchmark
+    @Group("hotKey")
+    @GroupThreads(READERS)
+    public FuelStatsCache.Entry read(HotCar state) {
+        return state.service.getFuelStatsResponse(state.car);
+    }
+
+    @Benchmark
+    @Group("hotKey")
+    @GroupThreads(1)
+    public FuelEntry write(HotCar state) {
+        return state.service.addFuelEntry(state.car.getId(), 40_000L, 160L, state.odometer);
+    }
+
+    @State(Scope.Group)
+    public static class HotCar {
+        private static final int HISTORY = 1000;
+
+        @Param({"true", "false"})
+        public boolean coalesce;
+
+        CarService service;
+        FuelStatsCache cache;
+        Car car;
+        int odometer;
+        private long hits;
+        private long misses;
+        private long coalesced;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            cache = new FuelStatsCache(new ObjectMapper(), 1000, coalesce, MetricsRegistry.disabled());
+            service = new CarService(new ConcurrentCarRepository(), cache, MetricsRegistry.disabled());
+            car = service.createCar("Bench", "Hot", 2020);
+            for (int e = 0; e < HISTORY; e++) {
+                odometer = e * FleetState.ODOMETER_STEP;
+                service.addFuelEntry(car.getId(), 40_000L, 160L, odometer);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void mark() {
+            hits = cache.getHits();
+            misses = cache.getMisses();
+            coalesced = cache.getCoalesced();
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            long reads = cache.getHits() - hits + cache.getMisses() - misses;
+            long computations = cache.getMisses() - misses - (cache.getCoalesced() - coalesced);
+            System.out.printf("%n%,d reads, %,d computations (%.1f%%), %,d coalesced%n", reads, computations,
+                    reads == 0 ? 0.0 : 100.0 * computations / reads, cache.getCoalesced() - coalesced);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.carmgmt.benchmarks.jmh;
+
+import com.carmgmt.model.Car;
+import com.carmgmt.model.FuelEntry;
+import com.carmgmt.repository.CarRepository;
+import com.carmgmt.repository.MutationLog;
+import com.carmgmt.repository.StorageBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of the {@link CarRepository} operations the API depends on,
+ * for any backend: the built-in ones by default, or another with
+ * {@code -p backend=com.example.MyRepository} (the class must be on the classpath).
+ * The repository is used directly, so the numbers exclude the service, serialization and HTTP.
+ * <p>
+ * Single-threaded operations show the cost of each call; the {@value #THREADS}-thread and
+ * readWrite variants show how a backend holds up when readers and writers contend.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StorageBenchmark {
+    static final int THREADS = 4;
+    private static final int PAGE_SIZE = 100;
+
+    @Benchmark
+    public Car findById(Store store) {
+        return store.repository.findById(store.randomId());
+    }
+
+    @Benchmark
+    public boolean existsByBrandModelYear(Store store) {
+        int c = store.randomIndex();
+        return store.repository.existsByBrandModelYear(store.brands[c], store.models[c], 2020);
+    }
+
+    @Benchmark
+    public List<Car> findAfter(Store store) {
+        return store.repository.findAfter(store.randomId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public FuelEntry addFuelEntry(Store store) {
+        return store.repository.addFuelEntry(store.randomCar(), new FuelEntry(40_000L, 160L, Store.TOP_ODOMETER));
+    }
+
+    /**
+     * Create a car and delete it again, so the fleet keeps its size
+     */
+    @Benchmark
+    public boolean saveAndDelete(Store store) {
+        Car car = store.repository.save(new Car("Transient", "Model", 2020));
+        return store.repository.deleteById(car.getId());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Car findByIdConcurrent(Store store) {
+        return store.repository.findById(store.randomId());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public FuelEntry addFuelEntryConcurrent(Store store) {
+        return store.repository.addFuelEntry(store.randomCar(), new FuelEntry(40_000L, 160L, Store.TOP_ODOMETER));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public List<Car> readWriteReader(Store store) {
+        return store.repository.findAfter(store.randomId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public FuelEntry readWriteWriter(Store store) {
+        return store.repository.addFuelEntry(store.randomCar(), new FuelEntry(40_000L, 160L, Store.TOP_ODOMETER));
+    }
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        private static final int ENTRIES_PER_CAR = 10;
+        // Every car's highest reading, so appends keep the odometers sorted
+        static final int TOP_ODOMETER = (ENTRIES_PER_CAR - 1) * FleetState.ODOMETER_STEP;
+
+        @Param({StorageBackend.CONCURRENT, StorageBackend.LOCKED})
+        public String backend;
+
+        @Param({"10000"})
+        public int cars;
+
+        CarRepository repository;
+        Car[] fleet;
+        String[] brands;
+        String[] models;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            repository = StorageBackend.create(backend, MutationLog.NONE);
+            repository.recover();
+            fleet = new Car[cars];
+            brands = new String[cars];
+            models = new String[cars];
+            for (int c = 0; c < cars; c++) {
+                // Looked up in a different case, as the API would
+                brands[c] = "brand" + c % 50;
+                models[c] = "MODEL" + c;
+                fleet[c] = repository.save(new Car("Brand" + c % 50, "Model" + c, 2020));
+                for (int e = 0; e < ENTRIES_PER_CAR; e++) {
+                    repository.addFuelEntry(fleet[c], new FuelEntry(FleetState.liters(e), FleetState.price(e),
+                            e * FleetState.ODOMETER_STEP));
+                }
+            }
+        }
+
+        int randomIndex() {
+            return ThreadLocalRandom.current().nextInt(cars);
+        }
+
+        Car randomCar() {
+            return fleet[randomIndex()];
+        }
+
+        Long randomId() {
+            return fleet[randomIndex()].getId();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 
 /**
@@ -34,6 +36,9 @@ public class CliApplication {
                 case "fuel-stats":
                     handleFuelStats(args);
                     break;
+                case "import":
+                    handleImport(args);
+                    break;
                 default:
                     System.err.println("Unknown command: " + command);
                     printUsage();
@@ -221,6 +226,64 @@ public class CliApplication {
         }
     }
 
+    /**
+     * Handles import command.
+     * import --file <csv> [--concurrency <n>] [--batch-size <n>] [--retries <n>]
+     */
+    private static void handleImport(String[] args) throws Exception {
+        String file = null;
+        int concurrency = 8;
+        int batchSize = 1000;
+        int retries = 5;
+
+        // Parse command line arguments
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--file":
+                    if (i + 1 < args.length) {
+                        file = args[++i];
+                    }
+                    break;
+                case "--concurrency":
+                    if (i + 1 < args.length) {
+                        concurrency = Integer.parseInt(args[++i]);
+                    }
+                    break;
+                case "--batch-size":
+                    if (i + 1 < args.length) {
+                        batchSize = Integer.parseInt(args[++i]);
+                    }
+                    break;
+                case "--retries":
+                    if (i + 1 < args.length) {
+                        retries = Integer.parseInt(args[++i]);
+                    }
+                    break;
+            }
+        }
+
+        if (file == null) {
+            throw new IllegalArgumentException(
+                    "Missing required parameter. Usage: import --file <csv> [--concurrency <n>] [--batch-size <n>] [--retries <n>]"
+            );
+        }
+        // The server rejects batches larger than 10,000 entries
+        if (concurrency < 1 || batchSize < 1 || batchSize > 10_000 || retries < 0) {
+            throw new IllegalArgumentException(
+                    "--concurrency must be at least 1, --batch-size between 1 and 10000, --retries not negative"
+            );
+        }
+        Path path = Path.of(file);
+        if (!Files.isReadable(path)) {
+            throw new IllegalArgumentException("Cannot read file: " + file);
+        }
+
+        CsvImporter importer = new CsvImporter(httpClient, BASE_URL, concurrency, batchSize, retries);
+        if (!importer.run(path)) {
+            System.exit(1);
+        }
+    }
+
     /**
      * Parses and displays fuel statistics in a user-friendly format.
      * Expected JSON format: {"success":true,"data":{"totalFuel":120.0,"totalCost":155.0,"averageConsumption":6.4}}
@@ -338,7 +401,7 @@ public class CliApplication {
     /**
      * Escapes special characters in JSON strings.
      */
-    private static String escapeJson(String str) {
+    static String escapeJson(String str) {
         return str.replace("\\", "\\\\")
                   .replace("\"", "\\\"")
                   .replace("\n", "\\n")
@@ -356,11 +419,14 @@ public class CliApplication {
         System.out.println("  create-car --brand <brand> --model <model> --year <year>");
         System.out.println("  add-fuel --carId <id> --liters <liters> --price <price> --odometer <odometer>");
         System.out.println("  fuel-stats --carId <id>");
+        System.out.println("  import --file <csv> [--concurrency <n>] [--batch-size <n>] [--retries <n>]");
+        System.out.println("      CSV columns: carId,liters,price,odometer[,timestamp]");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("  create-car --brand Toyota --model Corolla --year 2018");
         System.out.println("  add-fuel --carId 1 --liters 40 --price 52.5 --odometer 45000");
         System.out.println("  fuel-stats --carId 1");
+        System.out.println("  import --file fuel-history.csv --concurrency 16 --batch-size 2000");
     }
 }
 
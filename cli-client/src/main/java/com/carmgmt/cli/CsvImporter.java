@@ -0,0 +1,302 @@
+package com.carmgmt.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams a CSV file of fuel entries into the bulk endpoint POST /api/cars/fuel/batch.
+ * <p>
+ * Rows are read one at a time and routed by car ID to one of {@code concurrency} lanes.
+ * Each lane sends its batches with {@code sendAsync} one after another, so a car's rows
+ * reach the server in file order (required by odometer validation) while the lanes run
+ * in parallel: at most {@code concurrency} requests are in flight and at most twice as
+ * many batches are buffered, whatever the file size.
+ * <p>
+ * Batches are not idempotent, so only failures that guarantee the server did not apply the
+ * batch are retried, with exponential backoff and jitter: failing to connect, and 429 (the
+ * request was refused, not processed). A timeout, a dropped connection or a 5xx from a proxy
+ * may come after the server applied the batch, so its rows are reported as failed instead of
+ * being sent twice.
+ * <p>
+ * CSV columns: carId,liters,price,odometer[,timestamp]; a header row is skipped.
+ */
+class CsvImporter {
+    private static final int MAX_REPORTED_ERRORS = 10;
+    private static final long INITIAL_BACKOFF_MILLIS = 200;
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Pattern ACCEPTED = Pattern.compile("\"accepted\":(\\d+)");
+    private static final Pattern REJECTED_ITEM = Pattern.compile(
+            "\"index\":(\\d+),[^{}]*?\"success\":false,[^{}]*?\"error\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final HttpClient httpClient;
+    private final URI batchUri;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Lane[] lanes;
+    private final Semaphore bufferedBatches;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger reportedErrors = new AtomicInteger();
+
+    CsvImporter(HttpClient httpClient, String baseUrl, int concurrency, int batchSize, int maxRetries) {
+        this.httpClient = httpClient;
+        this.batchUri = URI.create(baseUrl + "/api/cars/fuel/batch");
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.lanes = new Lane[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = new Lane();
+        }
+        this.bufferedBatches = new Semaphore(2 * concurrency);
+    }
+
+    /**
+     * Import the file, printing progress every second; returns true if every row was accepted
+     */
+    boolean run(Path file) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "import-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> printProgress(started, false), 1, 1, TimeUnit.SECONDS);
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+                rowsRead.incrementAndGet();
+                Row row;
+                try {
+                    row = parse(line, lineNumber);
+                } catch (IllegalArgumentException e) {
+                    failed.incrementAndGet();
+                    reportError("line " + lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+                Lane lane = lanes[Math.floorMod(Long.hashCode(row.carId), lanes.length)];
+                lane.rows.add(row);
+                if (lane.rows.size() >= batchSize) {
+                    submit(lane);
+                }
+            }
+        }
+
+        for (Lane lane : lanes) {
+            if (!lane.rows.isEmpty()) {
+                submit(lane);
+            }
+        }
+        for (Lane lane : lanes) {
+            lane.tail.join();
+        }
+        progress.shutdownNow();
+        printProgress(started, true);
+        return failed.get() == 0 && rejected.get() == 0;
+    }
+
+    /**
+     * Queue the lane's buffered rows behind its previous batch; blocks while too many batches are buffered
+     */
+    private void submit(Lane lane) throws InterruptedException {
+        List<Row> batch = lane.rows;
+        lane.rows = new ArrayList<>(batchSize);
+        bufferedBatches.acquire();
+        lane.tail = lane.tail
+                .thenCompose(ignored -> send(batch, 0))
+                .whenComplete((ignored, error) -> bufferedBatches.release());
+    }
+
+    /**
+     * Send one batch, retrying transient failures; never completes exceptionally
+     */
+    private CompletableFuture<Void> send(List<Row> batch, int attempt) {
+        StringBuilder body = new StringBuilder(batch.size() * 64).append('[');
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(batch.get(i).json);
+        }
+        body.append(']');
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(batchUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        inFlight.incrementAndGet();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    inFlight.decrementAndGet();
+                    Throwable cause = error != null && error.getCause() != null ? error.getCause() : error;
+                    if (error == null && response.statusCode() != 429) {
+                        record(batch, response);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    if (cause != null && !isNotSent(cause)) {
+                        failed.addAndGet(batch.size());
+                        reportError("batch starting at line " + batch.get(0).lineNumber + " failed: " + cause
+                                + " (not retried, the server may have applied some of its rows)");
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    String reason = cause != null ? String.valueOf(cause) : "HTTP 429";
+                    if (attempt >= maxRetries) {
+                        failed.addAndGet(batch.size());
+                        reportError("batch starting at line " + batch.get(0).lineNumber + " failed after "
+                                + (attempt + 1) + " attempts: " + reason);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    retries.incrementAndGet();
+                    long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << attempt);
+                    long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                    return CompletableFuture
+                            .runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> send(batch, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private void record(List<Row> batch, HttpResponse<String> response) {
+        String body = response.body();
+        if (response.statusCode() != 200 && response.statusCode() != 201) {
+            failed.addAndGet(batch.size());
+            reportError("batch starting at line " + batch.get(0).lineNumber + " rejected with HTTP "
+                    + response.statusCode() + ": " + body);
+            return;
+        }
+        Matcher acceptedMatcher = ACCEPTED.matcher(body);
+        long acceptedRows = acceptedMatcher.find() ? Long.parseLong(acceptedMatcher.group(1)) : 0;
+        accepted.addAndGet(acceptedRows);
+        rejected.addAndGet(batch.size() - acceptedRows);
+        if (acceptedRows < batch.size()) {
+            Matcher item = REJECTED_ITEM.matcher(body);
+            while (item.find() && reportedErrors.get() < MAX_REPORTED_ERRORS) {
+                Row row = batch.get(Integer.parseInt(item.group(1)));
+                reportError("line " + row.lineNumber + ": " + item.group(2));
+            }
+        }
+    }
+
+    private void reportError(String message) {
+        int reported = reportedErrors.incrementAndGet();
+        if (reported <= MAX_REPORTED_ERRORS) {
+            System.err.println("  " + message);
+        } else if (reported == MAX_REPORTED_ERRORS + 1) {
+            System.err.println("  (further errors not shown)");
+        }
+    }
+
+    private void printProgress(long started, boolean done) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long processed = accepted.get() + rejected.get() + failed.get();
+        System.out.printf("%s %,d rows read, %,d accepted, %,d rejected, %,d failed, %,d retries"
+                        + " | %,.0f rows/s, %d requests in flight, %.1f s%n",
+                done ? "Done:" : "Importing:", rowsRead.get(), accepted.get(), rejected.get(), failed.get(),
+                retries.get(), processed / Math.max(seconds, 1e-9), inFlight.get(), seconds);
+    }
+
+    /**
+     * True if the request failed before any of it reached the server, so it is safe to resend
+     */
+    private static boolean isNotSent(Throwable error) {
+        return error instanceof ConnectException || error instanceof HttpConnectTimeoutException;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.trim().toLowerCase().startsWith("carid");
+    }
+
+    private static Row parse(String line, long lineNumber) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 4 || fields.length > 5) {
+            throw new IllegalArgumentException("expected carId,liters,price,odometer[,timestamp]");
+        }
+        try {
+            long carId = Long.parseLong(fields[0].trim());
+            BigDecimal liters = decimal("liters", fields[1].trim());
+            BigDecimal price = decimal("price", fields[2].trim());
+            int odometer = Integer.parseInt(fields[3].trim());
+            StringBuilder json = new StringBuilder(96)
+                    .append("{\"carId\":").append(carId)
+                    .append(",\"liters\":").append(liters)
+                    .append(",\"price\":").append(price)
+                    .append(",\"odometer\":").append(odometer);
+            if (fields.length == 5 && !fields[4].isBlank()) {
+                json.append(",\"timestamp\":\"").append(CliApplication.escapeJson(fields[4].trim())).append('"');
+            }
+            return new Row(lineNumber, carId, json.append('}').toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parse a decimal exactly as the server's BigDecimal fields do; NaN and Infinity are rejected
+     */
+    private static BigDecimal decimal(String name, String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + name + ": " + value);
+        }
+    }
+
+    private static final class Row {
+        private final long lineNumber;
+        private final long carId;
+        private final String json;
+
+        private Row(long lineNumber, long carId, String json) {
+            this.lineNumber = lineNumber;
+            this.carId = carId;
+            this.json = json;
+        }
+    }
+
+    /**
+     * Rows buffered for one group of cars, and the completion of the last batch sent for them.
+     * Only the reader thread touches rows and tail
+     */
+    private final class Lane {
+        private List<Row> rows = new ArrayList<>(batchSize);
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    }
+}
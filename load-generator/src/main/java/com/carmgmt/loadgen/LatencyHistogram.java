@@ -0,0 +1,123 @@
+package com.carmgmt.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * Latency histogram in microseconds with log-linear buckets: values below 2048 µs are exact,
+ * larger ones are kept to about 0.1%, up to about 2 hours.
+ * <p>
+ * {@link #correctedCopy} adds the samples a closed-loop client failed to send while it waited
+ * for a slow response (coordinated omission), in the same way as HdrHistogram.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 2048;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int MAX_SHIFT = 22;
+    private static final long MAX_VALUE = ((long) SUB_BUCKETS << MAX_SHIFT) - 1;
+
+    private final long[] counts = new long[HALF * (MAX_SHIFT + 2)];
+    private long totalCount;
+    private long sum;
+    private long max;
+
+    synchronized void record(long micros) {
+        recordCount(micros, 1);
+    }
+
+    synchronized void add(LatencyHistogram other) {
+        synchronized (other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            totalCount += other.totalCount;
+            sum += other.sum;
+            max = Math.max(max, other.max);
+        }
+    }
+
+    /**
+     * Copy of this histogram in which every value above expectedInterval is followed by the
+     * values value - interval, value - 2 * interval, ... down to the interval, the latencies of
+     * the requests that would have been sent meanwhile
+     */
+    synchronized LatencyHistogram correctedCopy(long expectedIntervalMicros) {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < counts.length; i++) {
+            long count = counts[i];
+            if (count == 0) {
+                continue;
+            }
+            long value = valueAt(i);
+            copy.recordCount(value, count);
+            if (expectedIntervalMicros > 0) {
+                for (long missing = value - expectedIntervalMicros; missing >= expectedIntervalMicros;
+                     missing -= expectedIntervalMicros) {
+                    copy.recordCount(missing, count);
+                }
+            }
+        }
+        copy.max = Math.max(copy.max, max);
+        return copy;
+    }
+
+    synchronized long count() {
+        return totalCount;
+    }
+
+    synchronized double mean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    synchronized long max() {
+        return max;
+    }
+
+    /**
+     * Value at the given quantile (0 to 1), in microseconds
+     */
+    synchronized long percentile(double quantile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(valueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    private void recordCount(long micros, long count) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        counts[indexOf(value)] += count;
+        totalCount += count;
+        sum += value * count;
+        max = Math.max(max, value);
+    }
+
+    private static int indexOf(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - 11);
+        int sub = (int) (value >>> shift);
+        return shift == 0 ? sub : HALF * shift + sub;
+    }
+
+    // Highest value that maps to the bucket
+    private static long valueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long sub = index - (long) HALF * shift;
+        return (sub << shift) + (1L << shift) - 1;
+    }
+}
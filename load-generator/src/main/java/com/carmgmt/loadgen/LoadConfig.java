@@ -0,0 +1,186 @@
+package com.carmgmt.loadgen;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from the command line
+ */
+final class LoadConfig {
+    enum Arrival { OPEN, CLOSED }
+
+    String url = "http://localhost:8080";
+    Path serverJar;
+    int port = 18080;
+    List<String> serverProperties = new ArrayList<>();
+    // carmgmt.server.execution for --server-jar, or null for the backend default
+    String execution;
+    Map<Operation, Integer> mix = parseMix("create=5,add-fuel=30,stats=50,list=15");
+    Arrival arrival = Arrival.CLOSED;
+    int concurrency = 32;
+    double rate;
+    int maxInFlight = 1000;
+    int warmupSeconds = 10;
+    int durationSeconds = 30;
+    int cars = 1000;
+    int entriesPerCar = 20;
+    // When positive, stats, servlet, add-fuel and slow-upload requests only target the first hotCars cars
+    int hotCars;
+    int listLimit = 100;
+    int bodyDelayMillis = 100;
+    int timeoutMillis = 30_000;
+    Path out = Paths.get("load-results.json");
+    String label;
+
+    static LoadConfig parse(String[] args) {
+        LoadConfig config = new LoadConfig();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--url":
+                    config.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "--server-jar":
+                    config.serverJar = Paths.get(value);
+                    break;
+                case "--port":
+                    config.port = positive(option, value);
+                    break;
+                case "--server-property":
+                    config.serverProperties.add("--" + value);
+                    break;
+                case "--execution":
+                    config.execution = value.toUpperCase(Locale.ROOT);
+                    if (!config.execution.equals("PLATFORM") && !config.execution.equals("VIRTUAL")) {
+                        throw new IllegalArgumentException("--execution must be platform or virtual");
+                    }
+                    break;
+                case "--mix":
+                    config.mix = parseMix(value);
+                    break;
+                case "--arrival":
+                    config.arrival = Arrival.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--concurrency":
+                    config.concurrency = positive(option, value);
+                    break;
+                case "--rate":
+                    config.rate = Double.parseDouble(value);
+                    if (config.rate <= 0) {
+                        throw new IllegalArgumentException("--rate must be positive");
+                    }
+                    break;
+                case "--max-in-flight":
+                    config.maxInFlight = positive(option, value);
+                    break;
+                case "--warmup":
+                    config.warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    config.durationSeconds = positive(option, value);
+                    break;
+                case "--cars":
+                    config.cars = positive(option, value);
+                    break;
+                case "--entries-per-car":
+                    config.entriesPerCar = Integer.parseInt(value);
+                    break;
+                case "--hot-cars":
+                    config.hotCars = positive(option, value);
+                    break;
+                case "--list-limit":
+                    config.listLimit = positive(option, value);
+                    break;
+                case "--body-delay-ms":
+                    config.bodyDelayMillis = Integer.parseInt(value);
+                    if (config.bodyDelayMillis < 0) {
+                        throw new IllegalArgumentException("--body-delay-ms cannot be negative");
+                    }
+                    break;
+                case "--timeout-ms":
+                    config.timeoutMillis = positive(option, value);
+                    break;
+                case "--out":
+                    config.out = Paths.get(value);
+                    break;
+                case "--label":
+                    config.label = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (config.arrival == Arrival.OPEN && config.rate <= 0) {
+            throw new IllegalArgumentException("--arrival open requires --rate");
+        }
+        if (config.execution != null && config.serverJar == null) {
+            throw new IllegalArgumentException("--execution requires --server-jar");
+        }
+        if (config.serverJar != null) {
+            config.url = "http://localhost:" + config.port;
+        }
+        return config;
+    }
+
+    /**
+     * Parse "create=5,add-fuel=30,..." into operation weights; unnamed operations get 0
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, 0);
+        }
+        int total = 0;
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid --mix entry: " + part + " (expected operation=weight)");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights cannot be negative: " + part);
+            }
+            mix.put(Operation.fromKey(pair[0].trim()), weight);
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    /**
+     * Most connections the load can hold open at once: one per worker or per request in flight
+     */
+    int maxConnections() {
+        return arrival == Arrival.OPEN ? maxInFlight : concurrency;
+    }
+
+    String mixString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            if (text.length() > 0) {
+                text.append(',');
+            }
+            text.append(entry.getKey().key()).append('=').append(entry.getValue());
+        }
+        return text.toString();
+    }
+
+    private static int positive(String option, String value) {
+        int number = Integer.parseInt(value);
+        if (number < 1) {
+            throw new IllegalArgumentException(option + " must be at least 1");
+        }
+        return number;
+    }
+}
@@ -0,0 +1,190 @@
+package com.carmgmt.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator for sizing hardware: drives a mixed workload against the backend and reports
+ * throughput and latency percentiles, corrected for coordinated omission.
+ * <p>
+ * The backend is either already running (--url) or started from its jar for the run
+ * (--server-jar). Before the load starts, --cars cars are created, each with
+ * --entries-per-car fuel entries. A backend started from its jar also has its CPU time
+ * over the measured interval reported, and can be switched between execution modes with
+ * --execution to compare platform and virtual threads under the same load. The backend's
+ * stats cache misses and coalesced misses over the measured interval are reported either way.
+ */
+public class LoadGenerator {
+    private static final int SEED_CONCURRENCY = 16;
+    // Tomcat's default server.tomcat.max-connections
+    private static final int MIN_SERVER_CONNECTIONS = 8192;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        Process server = config.serverJar != null ? startServer(config) : null;
+        try {
+            if (!awaitReady(client, config, server)) {
+                System.err.println("Backend at " + config.url + " did not become ready");
+                System.exit(1);
+            }
+            Workload workload = new Workload(config);
+            seed(client, workload, config);
+
+            System.out.printf("%s loop, %s, mix %s, %d s warm-up, %d s measured%s%n",
+                    config.arrival.name().toLowerCase(), describeArrival(config), config.mixString(),
+                    config.warmupSeconds, config.durationSeconds,
+                    config.execution != null ? ", " + config.execution + " execution" : "");
+            LoadResult result = new LoadRun(config, workload, client, server != null ? server.toHandle() : null).run();
+            result.print(System.out);
+            result.write();
+            System.out.println("Results written to " + config.out.toAbsolutePath());
+            if (result.hasErrors()) {
+                System.exit(1);
+            }
+        } finally {
+            if (server != null) {
+                server.destroy();
+                server.waitFor();
+            }
+        }
+    }
+
+    private static String describeArrival(LoadConfig config) {
+        if (config.arrival == LoadConfig.Arrival.OPEN) {
+            return String.format("%.0f requests/s", config.rate);
+        }
+        return config.concurrency + " workers" + (config.rate > 0 ? String.format(" paced to %.0f requests/s", config.rate) : "");
+    }
+
+    private static Process startServer(LoadConfig config) throws IOException {
+        if (!Files.isRegularFile(config.serverJar)) {
+            throw new IllegalArgumentException("Server jar not found: " + config.serverJar);
+        }
+        String java = ProcessHandle.current().info().command().orElse("java");
+        // Room for every connection the load can open, so none wait in the accept queue
+        List<String> command = new ArrayList<>(List.of(java, "-jar", config.serverJar.toString(),
+                "--server.port=" + config.port, "--logging.level.root=WARN",
+                "--server.tomcat.max-connections=" + Math.max(MIN_SERVER_CONNECTIONS, config.maxConnections() + 1000)));
+        if (config.execution != null) {
+            command.add("--carmgmt.server.execution=" + config.execution);
+        }
+        command.addAll(config.serverProperties);
+        Path log = Paths.get(System.getProperty("java.io.tmpdir"), "load-generator-server.log");
+        System.out.println("Starting " + config.serverJar + " on port " + config.port + " (log: " + log + ")");
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    }
+
+    private static boolean awaitReady(HttpClient client, LoadConfig config, Process server) throws InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(config.url + "/api/cars?limit=1"))
+                .timeout(Duration.ofSeconds(5)).GET().build();
+        for (int attempt = 0; attempt < 120; attempt++) {
+            if (server != null && !server.isAlive()) {
+                return false;
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return true;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        return false;
+    }
+
+    /**
+     * Create the initial cars and their fuel histories, a few requests at a time
+     */
+    private static void seed(HttpClient client, Workload workload, LoadConfig config) throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < config.cars; i++) {
+            permits.acquire();
+            client.sendAsync(workload.createCarRequest(), HttpResponse.BodyHandlers.ofString())
+                    .thenCompose(response -> {
+                        Workload.CarSlot car = response.statusCode() == 201 ? workload.addCar(response) : null;
+                        if (car == null) {
+                            return CompletableFuture.failedFuture(new IOException("Create failed: " + response.statusCode()));
+                        }
+                        if (config.entriesPerCar == 0) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        return client.sendAsync(workload.seedFuelRequest(car, config.entriesPerCar),
+                                HttpResponse.BodyHandlers.discarding());
+                    })
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            failures.incrementAndGet();
+                        }
+                        permits.release();
+                    });
+        }
+        permits.acquire(SEED_CONCURRENCY);
+        System.out.printf("Seeded %,d cars with %,d fuel entries each in %.1f s%s%n", workload.carCount(),
+                config.entriesPerCar, (System.nanoTime() - start) / 1e9,
+                failures.get() > 0 ? " (" + failures.get() + " failed)" : "");
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: java -jar load-generator.jar [options]");
+        System.out.println();
+        System.out.println("Target:");
+        System.out.println("  --url <url>                 Running backend (default http://localhost:8080)");
+        System.out.println("  --server-jar <jar>          Start this backend jar for the run instead");
+        System.out.println("  --port <n>                  Port for --server-jar (default 18080)");
+        System.out.println("  --server-property <k=v>     Backend property for --server-jar, repeatable");
+        System.out.println("  --execution <mode>          Backend execution mode for --server-jar: platform or virtual");
+        System.out.println();
+        System.out.println("Workload:");
+        System.out.println("  --mix <op=weight,...>       Operations create, add-fuel, stats, list, servlet, slow-upload");
+        System.out.println("                              (default create=5,add-fuel=30,stats=50,list=15)");
+        System.out.println("  --arrival closed|open       Closed: workers send one request at a time (default)");
+        System.out.println("                              Open: requests arrive at --rate regardless of responses");
+        System.out.println("  --concurrency <n>           Closed-loop workers (default 32)");
+        System.out.println("  --rate <n>                  Requests per second; paces closed-loop workers if given");
+        System.out.println("  --max-in-flight <n>         Open-loop cap on outstanding requests (default 1000)");
+        System.out.println("  --warmup <s>                Unmeasured warm-up (default 10)");
+        System.out.println("  --duration <s>              Measured interval (default 30)");
+        System.out.println("  --cars <n>                  Cars created before the run (default 1000)");
+        System.out.println("  --entries-per-car <n>       Fuel entries per seeded car (default 20)");
+        System.out.println("  --hot-cars <n>              Send per-car requests to the first n cars only");
+        System.out.println("  --list-limit <n>            Page size of list requests (default 100)");
+        System.out.println("  --body-delay-ms <n>         Delay before a slow-upload body is sent (default 100)");
+        System.out.println("  --timeout-ms <n>            Per-request timeout (default 30000)");
+        System.out.println();
+        System.out.println("Output:");
+        System.out.println("  --out <file>                JSON results (default load-results.json)");
+        System.out.println("  --label <text>              Free-form label stored with the results");
+    }
+}
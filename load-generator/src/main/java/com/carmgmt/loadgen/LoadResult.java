@@ -0,0 +1,206 @@
+package com.carmgmt.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Results of a load run, printed as a table and written as JSON for comparison between runs
+ */
+final class LoadResult {
+    private static final double[] QUANTILES = {0.50, 0.90, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final LoadConfig config;
+    private final Map<Operation, OperationStats> operations;
+    private final OperationStats total = new OperationStats();
+    private final boolean scheduled;
+    private final long expectedIntervalMicros;
+    // Backend CPU time over the measured interval, or -1 when not sampled
+    private final long serverCpuNanos;
+    // Stats cache misses and coalesced misses over the measured interval, or null when not sampled
+    private final long[] statsCacheCounters;
+    private final Instant finishedAt = Instant.now();
+
+    LoadResult(LoadConfig config, Map<Operation, OperationStats> operations,
+               boolean scheduled, long expectedIntervalMicros, long serverCpuNanos, long[] statsCacheCounters) {
+        this.config = config;
+        this.operations = operations;
+        this.scheduled = scheduled;
+        this.expectedIntervalMicros = expectedIntervalMicros;
+        this.serverCpuNanos = serverCpuNanos;
+        this.statsCacheCounters = statsCacheCounters;
+        operations.values().forEach(total::add);
+    }
+
+    boolean hasErrors() {
+        return total.errors() > 0;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-11s %10s %8s %8s %10s %10s %10s %10s %12s%n", "operation", "requests/s", "errors", "skipped",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms", "raw p99 ms");
+        for (Map.Entry<Operation, OperationStats> entry : operations.entrySet()) {
+            if (entry.getValue().requests() > 0 || entry.getValue().skipped() > 0) {
+                printRow(out, entry.getKey().key(), entry.getValue());
+            }
+        }
+        printRow(out, "total", total);
+        out.println(scheduled
+                ? "Latency is measured from when each request was due."
+                : String.format(Locale.ROOT, "Latency is corrected for coordinated omission with an expected interval of %.3f ms;"
+                        + " raw p99 is uncorrected.", expectedIntervalMicros / 1000.0));
+        if (serverCpuNanos >= 0) {
+            out.printf(Locale.ROOT, "Backend CPU: %.2f s over %d s (%.0f%% of one core), %.1f us per request%n",
+                    serverCpuNanos / 1e9, config.durationSeconds,
+                    100.0 * serverCpuNanos / (config.durationSeconds * 1e9), cpuMicrosPerRequest());
+        }
+        if (statsCacheCounters != null) {
+            out.printf(Locale.ROOT, "Stats cache: %d misses, %d coalesced into another request's computation%n",
+                    statsCacheCounters[0], statsCacheCounters[1]);
+        }
+    }
+
+    private double cpuMicrosPerRequest() {
+        return total.requests() == 0 ? 0.0 : serverCpuNanos / 1000.0 / total.requests();
+    }
+
+    private void printRow(PrintStream out, String name, OperationStats stats) {
+        LatencyHistogram latency = stats.responseTime;
+        out.printf(Locale.ROOT, "%-11s %,10.0f %8d %8d %10.2f %10.2f %10.2f %10.2f %12.2f%n", name,
+                stats.requests() / (double) config.durationSeconds, stats.errors(), stats.skipped(),
+                millis(latency.percentile(0.50)), millis(latency.percentile(0.99)),
+                millis(latency.percentile(0.999)), millis(latency.max()),
+                millis(stats.serviceTime.percentile(0.99)));
+    }
+
+    void write() throws IOException {
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\n");
+        field(json, 1, "label", config.label).append(",\n");
+        field(json, 1, "finishedAt", finishedAt.toString()).append(",\n");
+        field(json, 1, "java", Runtime.version().toString()).append(",\n");
+        indent(json, 1).append("\"processors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+
+        indent(json, 1).append("\"config\": {\n");
+        field(json, 2, "url", config.url).append(",\n");
+        field(json, 2, "execution", config.execution).append(",\n");
+        field(json, 2, "arrival", config.arrival.name().toLowerCase(Locale.ROOT)).append(",\n");
+        indent(json, 2).append("\"concurrency\": ").append(config.concurrency).append(",\n");
+        indent(json, 2).append("\"rate\": ").append(config.rate > 0 ? number(config.rate) : "null").append(",\n");
+        indent(json, 2).append("\"maxInFlight\": ").append(config.maxInFlight).append(",\n");
+        field(json, 2, "mix", config.mixString()).append(",\n");
+        indent(json, 2).append("\"warmupSeconds\": ").append(config.warmupSeconds).append(",\n");
+        indent(json, 2).append("\"durationSeconds\": ").append(config.durationSeconds).append(",\n");
+        indent(json, 2).append("\"cars\": ").append(config.cars).append(",\n");
+        indent(json, 2).append("\"entriesPerCar\": ").append(config.entriesPerCar).append(",\n");
+        indent(json, 2).append("\"hotCars\": ").append(config.hotCars > 0 ? Integer.toString(config.hotCars) : "null").append(",\n");
+        indent(json, 2).append("\"listLimit\": ").append(config.listLimit).append(",\n");
+        indent(json, 2).append("\"bodyDelayMs\": ").append(config.bodyDelayMillis).append('\n');
+        indent(json, 1).append("},\n");
+
+        indent(json, 1).append("\"coordinatedOmission\": {\n");
+        field(json, 2, "method", scheduled ? "measured-from-due-time" : "expected-interval").append(",\n");
+        indent(json, 2).append("\"expectedIntervalMs\": ").append(number(expectedIntervalMicros / 1000.0)).append('\n');
+        indent(json, 1).append("},\n");
+
+        indent(json, 1).append("\"serverCpu\": ");
+        if (serverCpuNanos >= 0) {
+            json.append("{\"seconds\": ").append(number(serverCpuNanos / 1e9))
+                    .append(", \"microsPerRequest\": ").append(number(cpuMicrosPerRequest())).append("},\n");
+        } else {
+            json.append("null,\n");
+        }
+        indent(json, 1).append("\"statsCache\": ");
+        if (statsCacheCounters != null) {
+            json.append("{\"misses\": ").append(statsCacheCounters[0])
+                    .append(", \"coalesced\": ").append(statsCacheCounters[1]).append("},\n");
+        } else {
+            json.append("null,\n");
+        }
+        indent(json, 1).append("\"total\": ");
+        operation(json, total);
+        json.append(",\n");
+        indent(json, 1).append("\"operations\": {");
+        boolean first = true;
+        for (Map.Entry<Operation, OperationStats> entry : operations.entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            first = false;
+            indent(json, 2).append('"').append(entry.getKey().key()).append("\": ");
+            operation(json, entry.getValue());
+        }
+        json.append('\n');
+        indent(json, 1).append("}\n");
+        json.append("}\n");
+        Files.write(config.out, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void operation(StringBuilder json, OperationStats stats) {
+        json.append("{\"requests\": ").append(stats.requests())
+                .append(", \"errors\": ").append(stats.errors())
+                .append(", \"skipped\": ").append(stats.skipped())
+                .append(", \"throughput\": ").append(number(stats.requests() / (double) config.durationSeconds))
+                .append(", \"failures\": {");
+        boolean first = true;
+        for (Map.Entry<String, Long> failure : stats.failures().entrySet()) {
+            if (!first) {
+                json.append(", ");
+            }
+            first = false;
+            json.append('"').append(escape(failure.getKey())).append("\": ").append(failure.getValue());
+        }
+        json.append("}, \"responseTimeMs\": ");
+        latency(json, stats.responseTime);
+        json.append(", \"serviceTimeMs\": ");
+        latency(json, stats.serviceTime);
+        json.append('}');
+    }
+
+    private static void latency(StringBuilder json, LatencyHistogram histogram) {
+        json.append("{\"mean\": ").append(number(histogram.mean() / 1000.0));
+        for (int i = 0; i < QUANTILES.length; i++) {
+            json.append(", \"").append(QUANTILE_NAMES[i]).append("\": ")
+                    .append(number(millis(histogram.percentile(QUANTILES[i]))));
+        }
+        json.append(", \"max\": ").append(number(millis(histogram.max()))).append('}');
+    }
+
+    private static StringBuilder field(StringBuilder json, int depth, String name, String value) {
+        indent(json, depth).append('"').append(name).append("\": ");
+        return value == null ? json.append("null") : json.append('"').append(escape(value)).append('"');
+    }
+
+    private static StringBuilder indent(StringBuilder json, int depth) {
+        for (int i = 0; i < depth; i++) {
+            json.append("  ");
+        }
+        return json;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,248 @@
+package com.carmgmt.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the workload for the warm-up and measured intervals.
+ * <p>
+ * Open loop: requests are due at a fixed rate whether or not earlier ones have completed,
+ * and are sent asynchronously (at most --max-in-flight at a time). Closed loop: --concurrency
+ * workers each send one request at a time; with --rate each worker is paced to its share of
+ * the rate. In both cases a request's response time is measured from when it was due, so a
+ * stalled server cannot hide the requests it delayed (coordinated omission). Unpaced closed-loop
+ * workers have no schedule; their response times are corrected afterwards by assuming each
+ * worker meant to send a request every mean service time, as HdrHistogram does.
+ * <p>
+ * When the generator started the backend itself, the backend's CPU time over the measured
+ * interval is sampled too, so runs can be compared by CPU spent per request. The backend's
+ * fuel stats cache counters are sampled over the same interval, so a hot-key run shows how many
+ * misses were coalesced into another request's computation.
+ */
+final class LoadRun {
+    private static final Pattern MISSES = Pattern.compile("\"misses\"\\s*:\\s*(\\d+)");
+    private static final Pattern COALESCED = Pattern.compile("\"coalesced\"\\s*:\\s*(\\d+)");
+
+    private final LoadConfig config;
+    private final Workload workload;
+    private final HttpClient client;
+    // Backend process started for the run, or null
+    private final ProcessHandle server;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private long measureStart;
+    private long measureEnd;
+    private volatile long serverCpuNanos = -1;
+    // Stats cache misses and coalesced misses over the measured interval, or null when not sampled
+    private volatile long[] statsCacheCounters;
+
+    LoadRun(LoadConfig config, Workload workload, HttpClient client, ProcessHandle server) {
+        this.config = config;
+        this.workload = workload;
+        this.client = client;
+        this.server = server;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Run the load and return the per-operation results of the measured interval
+     */
+    LoadResult run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        measureEnd = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        boolean scheduled = config.arrival == LoadConfig.Arrival.OPEN || config.rate > 0;
+        Thread sampler = startSampler();
+        if (config.arrival == LoadConfig.Arrival.OPEN) {
+            runOpen(start);
+        } else {
+            runClosed(start);
+        }
+        sampler.join();
+
+        long expectedIntervalMicros = 0;
+        if (!scheduled) {
+            OperationStats total = new OperationStats();
+            stats.values().forEach(total::add);
+            expectedIntervalMicros = Math.round(total.serviceTime.mean());
+            for (OperationStats operation : stats.values()) {
+                LatencyHistogram corrected = operation.serviceTime.correctedCopy(expectedIntervalMicros);
+                operation.responseTime.reset();
+                operation.responseTime.add(corrected);
+            }
+        }
+        return new LoadResult(config, stats, scheduled, expectedIntervalMicros, serverCpuNanos, statsCacheCounters);
+    }
+
+    /**
+     * Record the backend's CPU time, when it was started for the run, and its stats cache
+     * counters between the start and end of the measured interval
+     */
+    private Thread startSampler() {
+        Thread sampler = new Thread(() -> {
+            parkUntil(measureStart);
+            long cpuBefore = server != null ? cpuNanos(server) : -1;
+            long[] cacheBefore = statsCacheCounters();
+            parkUntil(measureEnd);
+            long cpuAfter = server != null ? cpuNanos(server) : -1;
+            long[] cacheAfter = statsCacheCounters();
+            if (cpuBefore >= 0 && cpuAfter >= 0) {
+                serverCpuNanos = cpuAfter - cpuBefore;
+            }
+            if (cacheBefore != null && cacheAfter != null) {
+                statsCacheCounters = new long[] {cacheAfter[0] - cacheBefore[0], cacheAfter[1] - cacheBefore[1]};
+            }
+        }, "sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        return sampler;
+    }
+
+    private static long cpuNanos(ProcessHandle process) {
+        return process.info().totalCpuDuration().map(Duration::toNanos).orElse(-1L);
+    }
+
+    /**
+     * The backend's stats cache misses and coalesced misses so far, or null if they could not be read
+     */
+    private long[] statsCacheCounters() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(config.url + "/api/cache/fuel-stats"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            Matcher misses = MISSES.matcher(response.body());
+            Matcher coalesced = COALESCED.matcher(response.body());
+            if (response.statusCode() != 200 || !misses.find() || !coalesced.find()) {
+                return null;
+            }
+            return new long[] {Long.parseLong(misses.group(1)), Long.parseLong(coalesced.group(1))};
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void runOpen(long start) throws InterruptedException {
+        long interval = Math.max(1, Math.round(1e9 / config.rate));
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        for (long n = 0; ; n++) {
+            long due = start + n * interval;
+            if (due >= measureEnd) {
+                break;
+            }
+            parkUntil(due);
+            Workload.Call call = workload.next();
+            if (call.request == null) {
+                skip(call, due);
+                continue;
+            }
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(call.request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        finish(call, due, sent, response, error);
+                        inFlight.release();
+                    });
+        }
+        // Wait for the stragglers
+        if (!inFlight.tryAcquire(config.maxInFlight, config.timeoutMillis + 5000L, TimeUnit.MILLISECONDS)) {
+            System.err.println("Some requests were still in flight when the run ended");
+        }
+    }
+
+    private void runClosed(long start) throws InterruptedException {
+        long interval = config.rate > 0 ? Math.max(1, Math.round(1e9 * config.concurrency / config.rate)) : 0;
+        List<Thread> workers = new ArrayList<>(config.concurrency);
+        for (int w = 0; w < config.concurrency; w++) {
+            Thread worker = new Thread(() -> work(start, interval), "load-worker-" + w);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void work(long start, long interval) {
+        // Spread paced workers over the interval so they do not fire together
+        long due = interval > 0 ? start + ThreadLocalRandom.current().nextLong(interval) : start;
+        while (true) {
+            if (interval > 0) {
+                parkUntil(due);
+            } else {
+                due = System.nanoTime();
+            }
+            if (due >= measureEnd) {
+                return;
+            }
+            Workload.Call call = workload.next();
+            if (call.request == null) {
+                skip(call, due);
+            } else {
+                long sent = System.nanoTime();
+                HttpResponse<String> response = null;
+                Throwable error = null;
+                try {
+                    response = client.send(call.request, HttpResponse.BodyHandlers.ofString());
+                } catch (IOException e) {
+                    error = e;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                finish(call, due, sent, response, error);
+            }
+            due += interval;
+        }
+    }
+
+    private void finish(Workload.Call call, long due, long sent, HttpResponse<String> response, Throwable error) {
+        long done = System.nanoTime();
+        workload.complete(call, error == null ? response : null);
+        if (due < measureStart) {
+            return;
+        }
+        String failure = null;
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            failure = cause.getClass().getSimpleName();
+        } else if (response.statusCode() / 100 != 2) {
+            failure = Integer.toString(response.statusCode());
+        }
+        stats.get(call.operation).record(due, sent, done, failure);
+    }
+
+    private void skip(Workload.Call call, long due) {
+        if (due >= measureStart) {
+            stats.get(call.operation).skip();
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
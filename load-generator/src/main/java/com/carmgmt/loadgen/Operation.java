@@ -0,0 +1,37 @@
+package com.carmgmt.loadgen;
+
+/**
+ * Request types in the mixed workload
+ */
+enum Operation {
+    CREATE("create"),
+    ADD_FUEL("add-fuel"),
+    STATS("stats"),
+    LIST("list"),
+    // Stats through FuelStatsServlet rather than the controller
+    SERVLET_STATS("servlet"),
+    // Add-fuel whose body arrives --body-delay-ms after the headers, like a slow mobile client
+    SLOW_UPLOAD("slow-upload");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Name used in --mix and in the results
+     */
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key + " (expected create, add-fuel, stats, list, servlet or slow-upload)");
+    }
+}
@@ -0,0 +1,66 @@
+package com.carmgmt.loadgen;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcomes and latencies of one operation during the measured interval.
+ * <p>
+ * Service time runs from when a request was actually sent; response time from when it was
+ * meant to be sent, so it includes any time spent waiting behind earlier slow requests.
+ */
+final class OperationStats {
+    final LatencyHistogram serviceTime = new LatencyHistogram();
+    final LatencyHistogram responseTime = new LatencyHistogram();
+    private long requests;
+    private long errors;
+    private long skipped;
+    // HTTP status, or the exception class, of failed requests
+    private final Map<String, Long> failures = new TreeMap<>();
+
+    void record(long intendedNanos, long sentNanos, long doneNanos, String failure) {
+        serviceTime.record((doneNanos - sentNanos) / 1000);
+        responseTime.record((doneNanos - intendedNanos) / 1000);
+        synchronized (this) {
+            requests++;
+            if (failure != null) {
+                errors++;
+                failures.merge(failure, 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * A request that was due but could not be built, e.g. every car was busy with add-fuel
+     */
+    synchronized void skip() {
+        skipped++;
+    }
+
+    synchronized void add(OperationStats other) {
+        serviceTime.add(other.serviceTime);
+        responseTime.add(other.responseTime);
+        synchronized (other) {
+            requests += other.requests;
+            errors += other.errors;
+            skipped += other.skipped;
+            other.failures.forEach((failure, count) -> failures.merge(failure, count, Long::sum));
+        }
+    }
+
+    synchronized long requests() {
+        return requests;
+    }
+
+    synchronized long errors() {
+        return errors;
+    }
+
+    synchronized long skipped() {
+        return skipped;
+    }
+
+    synchronized Map<String, Long> failures() {
+        return new TreeMap<>(failures);
+    }
+}
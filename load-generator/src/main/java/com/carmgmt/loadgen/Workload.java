@@ -0,0 +1,267 @@
+package com.carmgmt.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks operations by weight and builds their requests against a pool of known cars.
+ * <p>
+ * Fuel entries for a car must arrive in odometer order, so an add-fuel request holds its car
+ * until the response arrives and other add-fuel requests pick a different car. Cars created
+ * during the run join the pool. With --hot-cars, per-car requests all go to the
+ * first few cars, so reads of a car keep racing with its writes.
+ * <p>
+ * Slow uploads are add-fuel requests whose body follows the headers after --body-delay-ms,
+ * which ties up a server thread per upload unless the backend runs requests on virtual threads.
+ */
+final class Workload {
+    // Room for cars created during the run
+    private static final int EXTRA_CARS = 1_000_000;
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final int FREE_CAR_ATTEMPTS = 64;
+
+    private final LoadConfig config;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicReferenceArray<CarSlot> cars;
+    private final AtomicInteger carCount = new AtomicInteger();
+    // Distinguishes cars created by this run from those of earlier runs against the same server
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    Workload(LoadConfig config) {
+        this.config = config;
+        this.operations = config.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.cars = new AtomicReferenceArray<>(config.cars + EXTRA_CARS);
+    }
+
+    /**
+     * Request creating a uniquely named car, for seeding and the create operation
+     */
+    HttpRequest createCarRequest() {
+        long n = sequence.incrementAndGet();
+        String body = String.format(Locale.ROOT, "{\"brand\":\"LoadGen\",\"model\":\"%s-%d\",\"year\":%d}",
+                runId, n, 2000 + n % 25);
+        return post("/api/cars", body);
+    }
+
+    /**
+     * Request adding a history of fuel entries to a new car, for seeding
+     */
+    HttpRequest seedFuelRequest(CarSlot car, int entries) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            car.odometer += nextDistance();
+            appendFuelEntry(body, car.odometer);
+        }
+        return post("/api/cars/" + car.id + "/fuel/batch", body.append(']').toString());
+    }
+
+    /**
+     * Add a car to the pool once its creation succeeded; returns it, or null if the response had no ID
+     */
+    CarSlot addCar(HttpResponse<String> response) {
+        Matcher matcher = ID.matcher(response.body());
+        if (!matcher.find()) {
+            return null;
+        }
+        CarSlot car = new CarSlot(Long.parseLong(matcher.group(1)));
+        int index = carCount.getAndIncrement();
+        if (index < cars.length()) {
+            cars.set(index, car);
+        }
+        return car;
+    }
+
+    /**
+     * Next request of the mix. Its request is null when every car tried was busy with another
+     * add-fuel or slow upload, so the call was skipped
+     */
+    Call next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        Operation operation = operations[0];
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                operation = operations[i];
+                break;
+            }
+        }
+
+        switch (operation) {
+            case CREATE:
+                return new Call(operation, createCarRequest(), null);
+            case ADD_FUEL:
+            case SLOW_UPLOAD:
+                for (int attempt = 0; attempt < FREE_CAR_ATTEMPTS; attempt++) {
+                    CarSlot car = randomCar(random, config.hotCars);
+                    if (car != null && car.busy.compareAndSet(false, true)) {
+                        car.odometer += nextDistance();
+                        StringBuilder body = new StringBuilder();
+                        appendFuelEntry(body, car.odometer);
+                        String path = "/api/cars/" + car.id + "/fuel";
+                        HttpRequest request = operation == Operation.SLOW_UPLOAD
+                                ? postSlowly(path, body.toString())
+                                : post(path, body.toString());
+                        return new Call(operation, request, car);
+                    }
+                }
+                return new Call(operation, null, null);
+            case STATS: {
+                CarSlot car = randomCar(random, config.hotCars);
+                return new Call(operation, car == null ? null : get("/api/cars/" + car.id + "/fuel/stats"), null);
+            }
+            case SERVLET_STATS: {
+                CarSlot car = randomCar(random, config.hotCars);
+                return new Call(operation, car == null ? null : get("/servlet/fuel-stats?carId=" + car.id), null);
+            }
+            default: {
+                CarSlot car = randomCar(random, 0);
+                long after = car == null ? 0 : car.id - 1;
+                return new Call(operation, get("/api/cars?after=" + after + "&limit=" + config.listLimit), null);
+            }
+        }
+    }
+
+    /**
+     * Finish a call: release its car and add created cars to the pool. A null response means it failed
+     */
+    void complete(Call call, HttpResponse<String> response) {
+        if (call.car != null) {
+            if (response == null || response.statusCode() / 100 != 2) {
+                // The reading may or may not have been stored; later readings are higher either way
+                call.car.odometer += nextDistance();
+            }
+            call.car.busy.set(false);
+        }
+        if (call.operation == Operation.CREATE && response != null && response.statusCode() / 100 == 2) {
+            addCar(response);
+        }
+    }
+
+    int carCount() {
+        return Math.min(carCount.get(), cars.length());
+    }
+
+    /**
+     * A random car from the pool, or from its first hotCars cars when that is positive
+     */
+    private CarSlot randomCar(ThreadLocalRandom random, int hotCars) {
+        int count = hotCars > 0 ? Math.min(hotCars, carCount()) : carCount();
+        return count == 0 ? null : cars.get(random.nextInt(count));
+    }
+
+    private static int nextDistance() {
+        return 300 + ThreadLocalRandom.current().nextInt(400);
+    }
+
+    private static void appendFuelEntry(StringBuilder body, int odometer) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        body.append(String.format(Locale.ROOT, "{\"liters\":%.2f,\"price\":%.2f,\"odometer\":%d}",
+                30 + random.nextDouble() * 30, 1.4 + random.nextDouble() * 0.5, odometer));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(config.url + path))
+                .timeout(Duration.ofMillis(config.timeoutMillis))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(config.url + path))
+                .timeout(Duration.ofMillis(config.timeoutMillis))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Like post, but the body is only handed to the client --body-delay-ms after the request
+     * starts, so the headers reach the server first and its handler blocks reading the body
+     */
+    private HttpRequest postSlowly(String path, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        Executor delayed = CompletableFuture.delayedExecutor(config.bodyDelayMillis, TimeUnit.MILLISECONDS);
+        Flow.Publisher<ByteBuffer> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private final AtomicBoolean requested = new AtomicBoolean();
+
+            @Override
+            public void request(long n) {
+                if (n > 0 && requested.compareAndSet(false, true)) {
+                    delayed.execute(() -> {
+                        subscriber.onNext(ByteBuffer.wrap(bytes));
+                        subscriber.onComplete();
+                    });
+                }
+            }
+
+            @Override
+            public void cancel() {
+                requested.set(true);
+            }
+        });
+        return HttpRequest.newBuilder(URI.create(config.url + path))
+                .timeout(Duration.ofMillis(config.timeoutMillis))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.fromPublisher(publisher, bytes.length))
+                .build();
+    }
+
+    /**
+     * A known car and its highest odometer reading so far
+     */
+    static final class CarSlot {
+        final long id;
+        // Held by the one add-fuel request in flight for this car
+        final AtomicBoolean busy = new AtomicBoolean();
+        // Guarded by busy
+        int odometer;
+
+        CarSlot(long id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * One request of the workload
+     */
+    static final class Call {
+        final Operation operation;
+        // Null when the call was skipped
+        final HttpRequest request;
+        final CarSlot car;
+
+        Call(Operation operation, HttpRequest request, CarSlot car) {
+            this.operation = operation;
+            this.request = request;
+            this.car = car;
+        }
+    }
+}